@@ -0,0 +1,222 @@
+/*
+ * MIT License
+ * 
+ * Copyright (c) 2023 Kawtious
+ * 
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and
+ * associated documentation files (the "Software"), to deal in the Software without restriction,
+ * including without limitation the rights to use, copy, modify, merge, publish, distribute,
+ * sublicense, and/or sell copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ * 
+ * The above copyright notice and this permission notice shall be included in all copies or
+ * substantial portions of the Software.
+ * 
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT
+ * NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM,
+ * DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+package net.kaw.dev.scheduler.rest.benchmarks;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * CBOR reader for the benchmarks, so the decode side of the wire format can
+ * be measured against JSON parsing. The server only ever writes CBOR.
+ */
+public class CBORDecoder {
+
+    private static final int UNSIGNED = 0;
+
+    private static final int NEGATIVE = 1;
+
+    private static final int BYTES = 2;
+
+    private static final int TEXT = 3;
+
+    private static final int ARRAY = 4;
+
+    private static final int MAP = 5;
+
+    private static final int TAG = 6;
+
+    private static final int FALSE = 0xf4;
+
+    private static final int TRUE = 0xf5;
+
+    private static final int NULL = 0xf6;
+
+    private static final int UNDEFINED = 0xf7;
+
+    private static final int FLOAT16 = 0xf9;
+
+    private static final int FLOAT32 = 0xfa;
+
+    private static final int FLOAT64 = 0xfb;
+
+    public static Object decode(byte[] bytes) throws IOException {
+        CBORDecoder decoder = new CBORDecoder(bytes);
+
+        Object value = decoder.read();
+
+        if (decoder.position != bytes.length) {
+            throw new IOException("Trailing bytes after CBOR item");
+        }
+
+        return value;
+    }
+
+    private final byte[] bytes;
+
+    private int position;
+
+    private CBORDecoder(byte[] bytes) {
+        this.bytes = bytes;
+    }
+
+    private Object read() throws IOException {
+        int initial = readByte();
+        int major = initial >>> 5;
+        int info = initial & 0x1f;
+
+        switch (major) {
+            case UNSIGNED:
+                return readLength(info);
+            case NEGATIVE:
+                return -1 - readLength(info);
+            case BYTES:
+                return readBytes(readSize(info));
+            case TEXT:
+                return new String(readBytes(readSize(info)), StandardCharsets.UTF_8);
+            case ARRAY: {
+                int size = readSize(info);
+                List<Object> list = new ArrayList<>(size);
+
+                for (int i = 0; i < size; i++) {
+                    list.add(read());
+                }
+
+                return list;
+            }
+            case MAP: {
+                int size = readSize(info);
+                Map<String, Object> map = new LinkedHashMap<>();
+
+                for (int i = 0; i < size; i++) {
+                    map.put(String.valueOf(read()), read());
+                }
+
+                return map;
+            }
+            case TAG:
+                readLength(info);
+                return read();
+            default:
+                return readSimple(initial);
+        }
+    }
+
+    private Object readSimple(int initial) throws IOException {
+        switch (initial) {
+            case FALSE:
+                return false;
+            case TRUE:
+                return true;
+            case NULL:
+            case UNDEFINED:
+                return null;
+            case FLOAT16:
+                return halfToDouble((int) readRaw(2));
+            case FLOAT32:
+                return (double) Float.intBitsToFloat((int) readRaw(4));
+            case FLOAT64:
+                return Double.longBitsToDouble(readRaw(8));
+            default:
+                throw new IOException("Unsupported CBOR item 0x" + Integer.toHexString(initial));
+        }
+    }
+
+    private long readLength(int info) throws IOException {
+        if (info < 24) {
+            return info;
+        }
+
+        switch (info) {
+            case 24:
+                return readRaw(1);
+            case 25:
+                return readRaw(2);
+            case 26:
+                return readRaw(4);
+            case 27:
+                return readRaw(8);
+            default:
+                throw new IOException("Unsupported CBOR length " + info);
+        }
+    }
+
+    private int readSize(int info) throws IOException {
+        long size = readLength(info);
+
+        if (size < 0 || size > bytes.length - position) {
+            throw new IOException("Truncated CBOR item");
+        }
+
+        return (int) size;
+    }
+
+    private long readRaw(int count) throws IOException {
+        long value = 0;
+
+        for (int i = 0; i < count; i++) {
+            value = (value << 8) | readByte();
+        }
+
+        return value;
+    }
+
+    private byte[] readBytes(int length) throws IOException {
+        if (length > bytes.length - position) {
+            throw new IOException("Truncated CBOR item");
+        }
+
+        byte[] result = new byte[length];
+
+        System.arraycopy(bytes, position, result, 0, length);
+        position += length;
+
+        return result;
+    }
+
+    private int readByte() throws IOException {
+        if (position >= bytes.length) {
+            throw new IOException("Truncated CBOR item");
+        }
+
+        return bytes[position++] & 0xff;
+    }
+
+    private static double halfToDouble(int half) {
+        int exponent = (half >>> 10) & 0x1f;
+        int mantissa = half & 0x3ff;
+        double value;
+
+        if (exponent == 0) {
+            value = mantissa * Math.pow(2, -24);
+        } else if (exponent == 31) {
+            value = mantissa == 0 ? Double.POSITIVE_INFINITY : Double.NaN;
+        } else {
+            value = (mantissa + 1024) * Math.pow(2, exponent - 25);
+        }
+
+        return (half & 0x8000) == 0 ? value : -value;
+    }
+
+}
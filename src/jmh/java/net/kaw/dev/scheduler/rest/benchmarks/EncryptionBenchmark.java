@@ -0,0 +1,105 @@
+/*
+ * MIT License
+ * 
+ * Copyright (c) 2023 Kawtious
+ * 
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and
+ * associated documentation files (the "Software"), to deal in the Software without restriction,
+ * including without limitation the rights to use, copy, modify, merge, publish, distribute,
+ * sublicense, and/or sell copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ * 
+ * The above copyright notice and this permission notice shall be included in all copies or
+ * substantial portions of the Software.
+ * 
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT
+ * NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM,
+ * DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+package net.kaw.dev.scheduler.rest.benchmarks;
+
+import java.security.GeneralSecurityException;
+import java.security.Key;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.TimeUnit;
+import javax.crypto.Cipher;
+import javax.crypto.spec.SecretKeySpec;
+import net.kaw.dev.scheduler.rest.resources.utils.EncryptionUtils;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class EncryptionBenchmark {
+
+    private static final String VALUE = "0123456789abcdef0123456789abcdef";
+
+    private List<String> values;
+
+    @Setup
+    public void setup() {
+        values = new ArrayList<>();
+
+        for (int i = 0; i < 100; i++) {
+            values.add(VALUE + i);
+        }
+    }
+
+    @Benchmark
+    public byte[] perCall() throws GeneralSecurityException {
+        // The previous EncryptionUtils setup: new key and cipher on every call
+        Key aesKey = new SecretKeySpec("Bar12345Bar12345".getBytes(), "AES");
+        Cipher cipher = Cipher.getInstance("AES");
+        cipher.init(Cipher.ENCRYPT_MODE, aesKey);
+        return cipher.doFinal(VALUE.getBytes());
+    }
+
+    @Benchmark
+    public byte[] pooled() {
+        return EncryptionUtils.encrypt(VALUE.getBytes());
+    }
+
+    @Benchmark
+    public List<String> pooledBatch() {
+        return EncryptionUtils.encryptBase64(values);
+    }
+
+    // AsyncUtils runs each request on a new virtual thread, so per-thread
+    // caches never get a second use there. These run every call on a new
+    // thread to show that pooled ciphers are still reused in that setting.
+    @Benchmark
+    public byte[] perCallNewThread() throws Exception {
+        return onNewThread(this::perCall);
+    }
+
+    @Benchmark
+    public byte[] pooledNewThread() throws Exception {
+        return onNewThread(this::pooled);
+    }
+
+    private static byte[] onNewThread(Callable<byte[]> call) throws Exception {
+        FutureTask<byte[]> task = new FutureTask<>(call);
+
+        new Thread(task).start();
+
+        return task.get();
+    }
+
+}
@@ -0,0 +1,160 @@
+/*
+ * MIT License
+ * 
+ * Copyright (c) 2023 Kawtious
+ * 
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and
+ * associated documentation files (the "Software"), to deal in the Software without restriction,
+ * including without limitation the rights to use, copy, modify, merge, publish, distribute,
+ * sublicense, and/or sell copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ * 
+ * The above copyright notice and this permission notice shall be included in all copies or
+ * substantial portions of the Software.
+ * 
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT
+ * NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM,
+ * DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+package net.kaw.dev.scheduler.rest.benchmarks;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import net.kaw.dev.scheduler.exceptions.InvalidDataException;
+import net.kaw.dev.scheduler.rest.resources.utils.JSONStreamUtils;
+import net.kaw.dev.scheduler.rest.resources.utils.Page;
+import net.kaw.dev.scheduler.rest.resources.utils.PageUtils;
+import net.kaw.dev.scheduler.rest.resources.utils.SnapshotCache;
+import net.kaw.dev.scheduler.rest.resources.utils.VersionUtils;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Listing cost for 100, 10k and 100k seeded teachers, each with schedule maps
+ * of weekly half-hours: paging, streaming a page or the whole listing as
+ * JSON, and the snapshot path /teachers/get takes for full listings, both
+ * served from the cache and rebuilt after a write.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ListingBenchmark {
+
+    private static final long SEED = 42;
+
+    private static final int SCHEDULE_MAPS = 2;
+
+    private static final int HALF_HOURS_PER_DAY = 8;
+
+    @Param({"100", "10000", "100000"})
+    private int teachers;
+
+    private List<Map<String, Object>> items;
+
+    private SnapshotCache<Map<String, Object>> snapshot;
+
+    @Setup
+    public void setup() {
+        Random random = new Random(SEED);
+
+        items = new ArrayList<>(teachers);
+
+        for (int i = teachers - 1; i >= 0; i--) {
+            Map<String, Object> teacher = new LinkedHashMap<>();
+            teacher.put("id", String.format("T%07d", i));
+            teacher.put("first_name", "Teacher");
+            teacher.put("last_name", "Number " + i);
+
+            List<Map<String, Object>> scheduleMaps = new ArrayList<>(SCHEDULE_MAPS);
+
+            for (int j = 0; j < SCHEDULE_MAPS; j++) {
+                scheduleMaps.add(createScheduleMap(random, "C" + j));
+            }
+
+            teacher.put("schedule_maps", scheduleMaps);
+            items.add(teacher);
+        }
+
+        snapshot = new SnapshotCache<>(VersionUtils.Collection.TEACHERS, () -> items, ListingBenchmark::getId, ListingBenchmark::getId, teacher -> teacher);
+    }
+
+    @Benchmark
+    public Page<Map<String, Object>> page() {
+        return PageUtils.page(items, ListingBenchmark::getId, null, 50, true);
+    }
+
+    @Benchmark
+    public void streamPage() throws IOException {
+        Page<Map<String, Object>> page = PageUtils.page(items, ListingBenchmark::getId, null, 50, true);
+
+        JSONStreamUtils.stream(page, ListingBenchmark::getId, teacher -> teacher).write(OutputStream.nullOutputStream());
+    }
+
+    @Benchmark
+    public void streamAll() throws IOException {
+        Page<Map<String, Object>> page = PageUtils.page(items, ListingBenchmark::getId, null, Integer.MAX_VALUE, false);
+
+        JSONStreamUtils.stream(page, ListingBenchmark::getId, teacher -> teacher).write(OutputStream.nullOutputStream());
+    }
+
+    @Benchmark
+    public SnapshotCache.Snapshot snapshotHit() throws SQLException, InvalidDataException {
+        return snapshot.get();
+    }
+
+    @Benchmark
+    public SnapshotCache.Snapshot snapshotRebuild() throws SQLException, InvalidDataException {
+        VersionUtils.bump(VersionUtils.Collection.TEACHERS);
+
+        return snapshot.get();
+    }
+
+    private static Map<String, Object> createScheduleMap(Random random, String cycleId) {
+        List<Map<String, Object>> halfHours = new ArrayList<>();
+
+        for (int day = 0; day < 5; day++) {
+            int start = 14 + random.nextInt(16);
+
+            for (int halfHour = start; halfHour < start + HALF_HOURS_PER_DAY; halfHour++) {
+                Map<String, Object> slot = new HashMap<>();
+                slot.put("day", day);
+                slot.put("half_hour", halfHour);
+                slot.put("available", random.nextInt(4) != 0);
+                halfHours.add(slot);
+            }
+        }
+
+        Map<String, Object> scheduleMap = new LinkedHashMap<>();
+        scheduleMap.put("cycle_id", cycleId);
+        scheduleMap.put("half_hours", halfHours);
+
+        return scheduleMap;
+    }
+
+    private static String getId(Map<String, Object> teacher) {
+        return (String) teacher.get("id");
+    }
+
+}
@@ -0,0 +1,77 @@
+/*
+ * MIT License
+ * 
+ * Copyright (c) 2023 Kawtious
+ * 
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and
+ * associated documentation files (the "Software"), to deal in the Software without restriction,
+ * including without limitation the rights to use, copy, modify, merge, publish, distribute,
+ * sublicense, and/or sell copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ * 
+ * The above copyright notice and this permission notice shall be included in all copies or
+ * substantial portions of the Software.
+ * 
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT
+ * NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM,
+ * DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+package net.kaw.dev.scheduler.rest.benchmarks;
+
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import net.kaw.dev.scheduler.rest.resources.utils.RequestBody;
+import net.kaw.dev.scheduler.utils.JSONUtils;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class RequestBodyBenchmark {
+
+    @Param({"4", "64"})
+    private int keys;
+
+    private String jsonString;
+
+    @Setup
+    public void setup() {
+        StringBuilder builder = new StringBuilder("{\"auth_token\":\"0123456789abcdef\"");
+
+        for (int i = 0; i < keys; i++) {
+            builder.append(",\"key").append(i).append("\":\"value").append(i).append('"');
+        }
+
+        jsonString = builder.append('}').toString();
+    }
+
+    @Benchmark
+    public Map<String, Object> legacy() {
+        // RequestUtils.getMap, AuthManager.authenticate and MappableFactory each parsed the body
+        JSONUtils.isJSONValid(jsonString);
+        JSONUtils.jsonToMap(jsonString);
+        JSONUtils.jsonToMap(jsonString);
+        return JSONUtils.jsonToMap(jsonString);
+    }
+
+    @Benchmark
+    public Map<String, Object> requestBody() {
+        return RequestBody.of(jsonString).getMap();
+    }
+
+}
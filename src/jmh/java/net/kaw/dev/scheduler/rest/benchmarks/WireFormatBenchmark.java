@@ -0,0 +1,145 @@
+/*
+ * MIT License
+ * 
+ * Copyright (c) 2023 Kawtious
+ * 
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and
+ * associated documentation files (the "Software"), to deal in the Software without restriction,
+ * including without limitation the rights to use, copy, modify, merge, publish, distribute,
+ * sublicense, and/or sell copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ * 
+ * The above copyright notice and this permission notice shall be included in all copies or
+ * substantial portions of the Software.
+ * 
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT
+ * NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM,
+ * DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+package net.kaw.dev.scheduler.rest.benchmarks;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import net.kaw.dev.scheduler.rest.resources.utils.CBOREntity;
+import net.kaw.dev.scheduler.rest.resources.utils.JSONStreamUtils;
+import net.kaw.dev.scheduler.rest.resources.utils.Page;
+import net.kaw.dev.scheduler.rest.resources.utils.PageUtils;
+import net.kaw.dev.scheduler.utils.JSONUtils;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * JSON against CBOR for a teacher listing with dense half-hour grids: encode
+ * and decode time.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class WireFormatBenchmark {
+
+    private static final int DAYS = 7;
+
+    private static final int HALF_HOURS = 48;
+
+    @Param({"10", "1000"})
+    private int teachers;
+
+    private Page<Map<String, Object>> page;
+
+    private byte[] json;
+
+    private byte[] cbor;
+
+    @Setup
+    public void setup() throws IOException {
+        List<Map<String, Object>> items = new ArrayList<>(teachers);
+
+        for (int i = 0; i < teachers; i++) {
+            items.add(createTeacher(i));
+        }
+
+        page = PageUtils.page(items, WireFormatBenchmark::getId, null, Integer.MAX_VALUE, false);
+
+        json = encodeJSON();
+        cbor = encodeCBOR();
+    }
+
+    @Benchmark
+    public byte[] encodeJSON() throws IOException {
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+
+        JSONStreamUtils.stream(page, WireFormatBenchmark::getId, teacher -> teacher).write(output);
+
+        return output.toByteArray();
+    }
+
+    @Benchmark
+    public byte[] encodeCBOR() throws IOException {
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+
+        CBOREntity.of(page, WireFormatBenchmark::getId, teacher -> teacher).write(output);
+
+        return output.toByteArray();
+    }
+
+    @Benchmark
+    public Object decodeJSON() {
+        return JSONUtils.jsonToMap(new String(json, StandardCharsets.UTF_8));
+    }
+
+    @Benchmark
+    public Object decodeCBOR() throws IOException {
+        return CBORDecoder.decode(cbor);
+    }
+
+    private static Map<String, Object> createTeacher(int i) {
+        Map<String, Object> teacher = new HashMap<>();
+        teacher.put("id", String.format("T%07d", i));
+        teacher.put("first_name", "Teacher");
+        teacher.put("last_name", "Number " + i);
+
+        List<Object> scheduleMaps = new ArrayList<>();
+
+        for (int day = 0; day < DAYS; day++) {
+            List<Object> halfHours = new ArrayList<>(HALF_HOURS);
+
+            for (int halfHour = 0; halfHour < HALF_HOURS; halfHour++) {
+                halfHours.add((i + day + halfHour) % 3 == 0);
+            }
+
+            Map<String, Object> scheduleMap = new HashMap<>();
+            scheduleMap.put("day", day);
+            scheduleMap.put("half_hours", halfHours);
+            scheduleMaps.add(scheduleMap);
+        }
+
+        teacher.put("schedule_maps", scheduleMaps);
+
+        return teacher;
+    }
+
+    private static String getId(Map<String, Object> teacher) {
+        return (String) teacher.get("id");
+    }
+
+}
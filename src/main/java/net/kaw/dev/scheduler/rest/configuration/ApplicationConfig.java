@@ -40,6 +40,13 @@ public class ApplicationConfig extends Application {
         resources.add(net.kaw.dev.scheduler.rest.resources.CyclesResource.class);
         resources.add(net.kaw.dev.scheduler.rest.resources.TeachersResource.class);
         resources.add(net.kaw.dev.scheduler.rest.resources.AuthInstancesResource.class);
+        resources.add(net.kaw.dev.scheduler.rest.resources.MetricsResource.class);
+        resources.add(net.kaw.dev.scheduler.rest.resources.ChangesResource.class);
+        resources.add(net.kaw.dev.scheduler.rest.resources.EventsResource.class);
+        resources.add(net.kaw.dev.scheduler.rest.filters.MetricsFilter.class);
+        resources.add(net.kaw.dev.scheduler.rest.filters.RequestBodyFilter.class);
+        resources.add(net.kaw.dev.scheduler.rest.filters.RateLimitFilter.class);
+        resources.add(net.kaw.dev.scheduler.rest.providers.CBORWriter.class);
     }
 
 }
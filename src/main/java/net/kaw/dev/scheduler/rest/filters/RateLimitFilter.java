@@ -0,0 +1,147 @@
+/*
+ * MIT License
+ * 
+ * Copyright (c) 2023 Kawtious
+ * 
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and
+ * associated documentation files (the "Software"), to deal in the Software without restriction,
+ * including without limitation the rights to use, copy, modify, merge, publish, distribute,
+ * sublicense, and/or sell copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ * 
+ * The above copyright notice and this permission notice shall be included in all copies or
+ * substantial portions of the Software.
+ * 
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT
+ * NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM,
+ * DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+package net.kaw.dev.scheduler.rest.filters;
+
+import jakarta.annotation.Priority;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.ws.rs.HttpMethod;
+import jakarta.ws.rs.Priorities;
+import jakarta.ws.rs.container.ContainerRequestContext;
+import jakarta.ws.rs.container.ContainerRequestFilter;
+import jakarta.ws.rs.container.ResourceInfo;
+import jakarta.ws.rs.core.Context;
+import jakarta.ws.rs.core.HttpHeaders;
+import jakarta.ws.rs.core.Response;
+import jakarta.ws.rs.ext.Provider;
+import java.lang.reflect.Method;
+import java.sql.SQLException;
+import java.util.Map;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+import net.kaw.dev.scheduler.exceptions.InvalidDataException;
+import net.kaw.dev.scheduler.persistence.sql.auth.data.AuthInstance;
+import net.kaw.dev.scheduler.rest.resources.utils.AuthCache;
+import net.kaw.dev.scheduler.rest.resources.utils.AuthUtils;
+import net.kaw.dev.scheduler.rest.resources.utils.RateLimited;
+import net.kaw.dev.scheduler.rest.resources.utils.RateLimiter;
+import net.kaw.dev.scheduler.rest.resources.utils.RequestBody;
+import net.kaw.dev.scheduler.rest.resources.utils.ResponseUtils;
+
+@Provider
+@Priority(Priorities.AUTHORIZATION)
+public class RateLimitFilter implements ContainerRequestFilter {
+
+    public static final String FORWARDED_HEADER_PROPERTY = "scheduler.rate.forwarded.header";
+
+    private static final String FORWARDED_HEADER = System.getProperty(FORWARDED_HEADER_PROPERTY);
+
+    @Context
+    private HttpServletRequest request;
+
+    @Context
+    private ResourceInfo resourceInfo;
+
+    @Override
+    public void filter(ContainerRequestContext requestContext) {
+        String authToken = getAuthToken(requestContext);
+
+        AuthInstance authInstance = authenticate(authToken);
+
+        Integer authLevel = authInstance == null ? null : authInstance.getAuthLevel();
+
+        String key = authInstance != null ? authToken : getClientAddress(requestContext);
+
+        RateLimiter.Group group = getGroup(requestContext);
+
+        if (!RateLimiter.tryAcquire(key, group, authLevel)) {
+            Response response = ResponseUtils.createResponse(ResponseUtils.RATE_LIMITED);
+
+            requestContext.abortWith(Response.fromResponse(response)
+                    .header("Retry-After", RateLimiter.getRetryAfterSeconds(group, authLevel))
+                    .build());
+        }
+    }
+
+    private static AuthInstance authenticate(String authToken) {
+        AuthInstance authInstance = AuthCache.peek(authToken);
+
+        if (authInstance != null || authToken == null) {
+            return authInstance;
+        }
+
+        try {
+            return AuthCache.get(authToken);
+        } catch (SQLException | InvalidDataException ex) {
+            Logger.getLogger(RateLimitFilter.class.getName()).log(Level.SEVERE, null, ex);
+        }
+
+        return null;
+    }
+
+    private static String getAuthToken(ContainerRequestContext requestContext) {
+        Object body = requestContext.getProperty(RequestBody.PROPERTY);
+
+        Map<String, Object> map = body instanceof RequestBody ? ((RequestBody) body).getMap() : null;
+
+        if (map != null && map.get(AuthInstance.AUTH_TOKEN_KEY) instanceof String) {
+            return (String) map.get(AuthInstance.AUTH_TOKEN_KEY);
+        }
+
+        return AuthUtils.getBearerToken(requestContext.getHeaderString(HttpHeaders.AUTHORIZATION));
+    }
+
+    private String getClientAddress(ContainerRequestContext requestContext) {
+        String forwarded = FORWARDED_HEADER == null ? null : requestContext.getHeaderString(FORWARDED_HEADER);
+
+        if (forwarded != null) {
+            int comma = forwarded.indexOf(',');
+
+            String client = (comma < 0 ? forwarded : forwarded.substring(0, comma)).trim();
+
+            if (!client.isEmpty()) {
+                return client;
+            }
+        }
+
+        return request.getRemoteAddr();
+    }
+
+    private RateLimiter.Group getGroup(ContainerRequestContext requestContext) {
+        Method method = resourceInfo.getResourceMethod();
+
+        RateLimited rateLimited = method == null ? null : method.getAnnotation(RateLimited.class);
+
+        if (rateLimited == null && resourceInfo.getResourceClass() != null) {
+            rateLimited = resourceInfo.getResourceClass().getAnnotation(RateLimited.class);
+        }
+
+        if (rateLimited != null) {
+            return rateLimited.value();
+        }
+
+        if (HttpMethod.GET.equals(requestContext.getMethod())) {
+            return RateLimiter.Group.READ;
+        }
+
+        return RateLimiter.Group.WRITE;
+    }
+
+}
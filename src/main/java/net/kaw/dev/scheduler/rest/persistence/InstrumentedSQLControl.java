@@ -0,0 +1,140 @@
+/*
+ * MIT License
+ * 
+ * Copyright (c) 2023 Kawtious
+ * 
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and
+ * associated documentation files (the "Software"), to deal in the Software without restriction,
+ * including without limitation the rights to use, copy, modify, merge, publish, distribute,
+ * sublicense, and/or sell copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ * 
+ * The above copyright notice and this permission notice shall be included in all copies or
+ * substantial portions of the Software.
+ * 
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT
+ * NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM,
+ * DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+package net.kaw.dev.scheduler.rest.persistence;
+
+import java.sql.SQLException;
+import java.util.List;
+import net.kaw.dev.scheduler.data.Cycle;
+import net.kaw.dev.scheduler.data.ScheduleMap;
+import net.kaw.dev.scheduler.data.Teacher;
+import net.kaw.dev.scheduler.exceptions.InvalidDataException;
+import net.kaw.dev.scheduler.persistence.sql.SQLControl;
+import net.kaw.dev.scheduler.persistence.sql.auth.data.AuthInstance;
+
+/**
+ * Mirror of the SQLControl API that records every call in SQLMetrics.
+ */
+public class InstrumentedSQLControl {
+
+    public static class Teachers {
+
+        public static List<Teacher> select() throws SQLException, InvalidDataException {
+            return SQLMetrics.call("Teachers.select", () -> SQLControl.Teachers.select());
+        }
+
+        public static Teacher select(String id) throws SQLException, InvalidDataException {
+            return SQLMetrics.call("Teachers.selectById", () -> SQLControl.Teachers.select(id));
+        }
+
+        public static void insert(Teacher teacher) throws SQLException, InvalidDataException {
+            SQLMetrics.call("Teachers.insert", () -> {
+                SQLControl.Teachers.insert(teacher);
+                return teacher;
+            });
+        }
+
+        public static void delete(String id) throws SQLException {
+            SQLMetrics.update("Teachers.delete", () -> SQLControl.Teachers.delete(id));
+        }
+
+    }
+
+    public static class Cycles {
+
+        public static List<Cycle> select() throws SQLException, InvalidDataException {
+            return SQLMetrics.call("Cycles.select", () -> SQLControl.Cycles.select());
+        }
+
+        public static Cycle select(String id) throws SQLException, InvalidDataException {
+            return SQLMetrics.call("Cycles.selectById", () -> SQLControl.Cycles.select(id));
+        }
+
+        public static void insert(Cycle cycle) throws SQLException, InvalidDataException {
+            SQLMetrics.call("Cycles.insert", () -> {
+                SQLControl.Cycles.insert(cycle);
+                return cycle;
+            });
+        }
+
+        public static void delete(String id) throws SQLException {
+            SQLMetrics.update("Cycles.delete", () -> SQLControl.Cycles.delete(id));
+        }
+
+    }
+
+    public static class AuthInstances {
+
+        public static List<AuthInstance> select() throws SQLException, InvalidDataException {
+            return SQLMetrics.call("AuthInstances.select", () -> SQLControl.AuthInstances.select());
+        }
+
+        public static AuthInstance select(String authToken) throws SQLException, InvalidDataException {
+            return SQLMetrics.call("AuthInstances.selectByToken", () -> SQLControl.AuthInstances.select(authToken));
+        }
+
+        public static AuthInstance authenticate(String username, String password) throws SQLException, InvalidDataException {
+            return SQLMetrics.call("AuthInstances.authenticate", () -> SQLControl.AuthInstances.authenticate(username, password));
+        }
+
+        public static void insert(AuthInstance authInstance) throws SQLException, InvalidDataException {
+            SQLMetrics.call("AuthInstances.insert", () -> {
+                SQLControl.AuthInstances.insert(authInstance);
+                return authInstance;
+            });
+        }
+
+        public static void delete(String authToken) throws SQLException {
+            SQLMetrics.update("AuthInstances.delete", () -> SQLControl.AuthInstances.delete(authToken));
+        }
+
+    }
+
+    public static class ScheduleMaps {
+
+        public static void insert(ScheduleMap scheduleMap, Teacher teacher) throws SQLException, InvalidDataException {
+            SQLMetrics.call("ScheduleMaps.insert", () -> {
+                SQLControl.ScheduleMaps.insert(scheduleMap, teacher);
+                return scheduleMap;
+            });
+        }
+
+    }
+
+    public static class HalfHours {
+
+        public static void insertFromScheduleMap(ScheduleMap scheduleMap) throws SQLException, InvalidDataException {
+            SQLMetrics.call("HalfHours.insertFromScheduleMap", () -> {
+                SQLControl.HalfHours.insertFromScheduleMap(scheduleMap);
+                return scheduleMap;
+            });
+        }
+
+    }
+
+    public static class Careers {
+
+        public static void delete(String id) throws SQLException {
+            SQLMetrics.update("Careers.delete", () -> SQLControl.Careers.delete(id));
+        }
+
+    }
+
+}
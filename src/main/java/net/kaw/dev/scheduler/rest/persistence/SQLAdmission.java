@@ -0,0 +1,114 @@
+/*
+ * MIT License
+ * 
+ * Copyright (c) 2023 Kawtious
+ * 
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and
+ * associated documentation files (the "Software"), to deal in the Software without restriction,
+ * including without limitation the rights to use, copy, modify, merge, publish, distribute,
+ * sublicense, and/or sell copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ * 
+ * The above copyright notice and this permission notice shall be included in all copies or
+ * substantial portions of the Software.
+ * 
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT
+ * NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM,
+ * DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+package net.kaw.dev.scheduler.rest.persistence;
+
+import java.sql.SQLException;
+import java.sql.SQLTransientConnectionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import net.kaw.dev.scheduler.rest.resources.utils.Histogram;
+import net.kaw.dev.scheduler.rest.resources.utils.Metrics;
+
+/**
+ * Optional admission control for SQLControl calls, off unless LIMIT_PROPERTY
+ * is set to a positive value. When on, at most LIMIT calls run at once, and a
+ * call that cannot be admitted within TIMEOUT fails with a
+ * SQLTransientConnectionException instead of queueing without bound. This is
+ * not a connection pool; SQLControl still opens its own connections and
+ * statements, so connection setup cost is unchanged until the library
+ * accepts a pooled DataSource.
+ */
+public class SQLAdmission {
+
+    public static final String LIMIT_PROPERTY = "scheduler.sql.admission.limit";
+
+    public static final String TIMEOUT_PROPERTY = "scheduler.sql.admission.timeout";
+
+    public static final int LIMIT = Math.max(0, Integer.getInteger(LIMIT_PROPERTY, 0));
+
+    public static final boolean ENABLED = LIMIT > 0;
+
+    public static final long TIMEOUT = Long.getLong(TIMEOUT_PROPERTY, TimeUnit.SECONDS.toMillis(5));
+
+    private static final Semaphore PERMITS = ENABLED ? new Semaphore(LIMIT, true) : null;
+
+    private static final Histogram WAIT = new Histogram();
+
+    private static final LongAdder TIMEOUTS = new LongAdder();
+
+    public static void acquire() throws SQLException {
+        if (!ENABLED) {
+            return;
+        }
+
+        if (PERMITS.tryAcquire()) {
+            WAIT.record(0);
+            return;
+        }
+
+        long start = System.nanoTime();
+
+        try {
+            if (!PERMITS.tryAcquire(TIMEOUT, TimeUnit.MILLISECONDS)) {
+                TIMEOUTS.increment();
+                throw new SQLTransientConnectionException("SQL call not admitted within " + TIMEOUT + " ms");
+            }
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            throw new SQLTransientConnectionException(ex);
+        } finally {
+            WAIT.record((System.nanoTime() - start) / 1000);
+        }
+    }
+
+    public static void release() {
+        if (ENABLED) {
+            PERMITS.release();
+        }
+    }
+
+    public static int getInUse() {
+        return ENABLED ? LIMIT - PERMITS.availablePermits() : 0;
+    }
+
+    public static int getWaiting() {
+        return ENABLED ? PERMITS.getQueueLength() : 0;
+    }
+
+    public static void render(StringBuilder builder) {
+        if (!ENABLED) {
+            return;
+        }
+
+        builder.append("# TYPE scheduler_sql_admission_limit gauge\n");
+        builder.append("scheduler_sql_admission_limit ").append(LIMIT).append('\n');
+        builder.append("# TYPE scheduler_sql_admission_in_use gauge\n");
+        builder.append("scheduler_sql_admission_in_use ").append(getInUse()).append('\n');
+        builder.append("# TYPE scheduler_sql_admission_waiting gauge\n");
+        builder.append("scheduler_sql_admission_waiting ").append(getWaiting()).append('\n');
+        builder.append("# TYPE scheduler_sql_admission_timeouts_total counter\n");
+        builder.append("scheduler_sql_admission_timeouts_total ").append(TIMEOUTS.sum()).append('\n');
+        builder.append("# TYPE scheduler_sql_admission_wait_seconds summary\n");
+        Metrics.appendSummary(builder, "scheduler_sql_admission_wait_seconds", "gate=\"sql\"", WAIT, 1e6);
+    }
+
+}
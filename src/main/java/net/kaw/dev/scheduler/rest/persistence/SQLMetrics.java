@@ -0,0 +1,227 @@
+/*
+ * MIT License
+ * 
+ * Copyright (c) 2023 Kawtious
+ * 
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and
+ * associated documentation files (the "Software"), to deal in the Software without restriction,
+ * including without limitation the rights to use, copy, modify, merge, publish, distribute,
+ * sublicense, and/or sell copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ * 
+ * The above copyright notice and this permission notice shall be included in all copies or
+ * substantial portions of the Software.
+ * 
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT
+ * NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM,
+ * DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+package net.kaw.dev.scheduler.rest.persistence;
+
+import java.sql.SQLException;
+import java.util.Collection;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+import net.kaw.dev.scheduler.exceptions.InvalidDataException;
+import net.kaw.dev.scheduler.rest.resources.utils.Histogram;
+import net.kaw.dev.scheduler.rest.resources.utils.Metrics;
+
+/**
+ * Timing, row and call counts for every SQLControl operation, plus a per
+ * request tally that is attributed to the endpoint that issued the calls.
+ * Slow queries and requests with suspiciously many calls are logged, at most
+ * once per operation or endpoint every LOG_INTERVAL.
+ */
+public class SQLMetrics {
+
+    public static final long SLOW_QUERY_MICROS = TimeUnit.MILLISECONDS.toMicros(100);
+
+    public static final int MANY_CALLS_PER_REQUEST = 25;
+
+    public static final long LOG_INTERVAL = TimeUnit.SECONDS.toNanos(10);
+
+    private static final Logger LOGGER = Logger.getLogger(SQLMetrics.class.getName());
+
+    private static final Map<String, Operation> OPERATIONS = new ConcurrentHashMap<>();
+
+    private static final Map<String, AtomicLong> REQUEST_LOGS = new ConcurrentHashMap<>();
+
+    private static final ThreadLocal<RequestStats> REQUEST = new ThreadLocal<>();
+
+    public interface SQLCall<T> {
+
+        T call() throws SQLException, InvalidDataException;
+
+    }
+
+    public interface SQLUpdate {
+
+        void run() throws SQLException;
+
+    }
+
+    public static <T> T call(String operation, SQLCall<T> call) throws SQLException, InvalidDataException {
+        SQLAdmission.acquire();
+
+        long start = System.nanoTime();
+
+        T result = null;
+
+        try {
+            result = call.call();
+            return result;
+        } finally {
+            record(operation, System.nanoTime() - start, rowsOf(result));
+            SQLAdmission.release();
+        }
+    }
+
+    public static void update(String operation, SQLUpdate update) throws SQLException {
+        SQLAdmission.acquire();
+
+        long start = System.nanoTime();
+
+        try {
+            update.run();
+        } finally {
+            record(operation, System.nanoTime() - start, 1);
+            SQLAdmission.release();
+        }
+    }
+
+    public static void beginRequest(Metrics.Route route) {
+        REQUEST.set(new RequestStats(route));
+    }
+
+    public static void endRequest() {
+        RequestStats stats = REQUEST.get();
+
+        REQUEST.remove();
+
+        if (stats == null || stats.route == null) {
+            return;
+        }
+
+        stats.route.recordSQL(stats.calls, stats.nanos / 1000);
+
+        if (stats.calls >= MANY_CALLS_PER_REQUEST && shouldLog(REQUEST_LOGS.computeIfAbsent(stats.route.getName(), k -> new AtomicLong()))) {
+            LOGGER.log(Level.WARNING, "{0} made {1} SQL calls in one request ({2} ms)",
+                    new Object[]{stats.route.getName(), stats.calls, TimeUnit.NANOSECONDS.toMillis(stats.nanos)});
+        }
+    }
+
+    public static void render(StringBuilder builder) {
+        SQLAdmission.render(builder);
+
+        Map<String, Operation> operations = new TreeMap<>(OPERATIONS);
+
+        builder.append("# TYPE scheduler_sql_calls_total counter\n");
+
+        for (Map.Entry<String, Operation> entry : operations.entrySet()) {
+            appendSample(builder, "scheduler_sql_calls_total", entry.getKey(), entry.getValue().latency.getCount());
+        }
+
+        builder.append("# TYPE scheduler_sql_rows_total counter\n");
+
+        for (Map.Entry<String, Operation> entry : operations.entrySet()) {
+            appendSample(builder, "scheduler_sql_rows_total", entry.getKey(), entry.getValue().rows.sum());
+        }
+
+        builder.append("# TYPE scheduler_sql_slow_calls_total counter\n");
+
+        for (Map.Entry<String, Operation> entry : operations.entrySet()) {
+            appendSample(builder, "scheduler_sql_slow_calls_total", entry.getKey(), entry.getValue().slow.sum());
+        }
+
+        builder.append("# TYPE scheduler_sql_duration_seconds summary\n");
+
+        for (Map.Entry<String, Operation> entry : operations.entrySet()) {
+            Metrics.appendSummary(builder, "scheduler_sql_duration_seconds", "operation=\"" + entry.getKey() + "\"", entry.getValue().latency, 1e6);
+        }
+    }
+
+    private static void record(String operation, long nanos, long rows) {
+        long micros = nanos / 1000;
+
+        Operation stats = OPERATIONS.get(operation);
+
+        if (stats == null) {
+            stats = OPERATIONS.computeIfAbsent(operation, k -> new Operation());
+        }
+
+        stats.latency.record(micros);
+        stats.rows.add(rows);
+
+        RequestStats request = REQUEST.get();
+
+        if (request != null) {
+            request.calls++;
+            request.nanos += nanos;
+        }
+
+        if (micros >= SLOW_QUERY_MICROS) {
+            stats.slow.increment();
+
+            if (shouldLog(stats.lastLogged)) {
+                String endpoint = request == null || request.route == null ? "unknown" : request.route.getName();
+
+                LOGGER.log(Level.WARNING, "Slow SQL call {0} took {1} ms, {2} rows, from {3}",
+                        new Object[]{operation, micros / 1000, rows, endpoint});
+            }
+        }
+    }
+
+    private static boolean shouldLog(AtomicLong lastLogged) {
+        long now = System.nanoTime();
+        long last = lastLogged.get();
+
+        return (last == 0 || now - last >= LOG_INTERVAL) && lastLogged.compareAndSet(last, now);
+    }
+
+    private static long rowsOf(Object result) {
+        if (result instanceof Collection) {
+            return ((Collection<?>) result).size();
+        }
+
+        return result == null ? 0 : 1;
+    }
+
+    private static void appendSample(StringBuilder builder, String name, String operation, long value) {
+        builder.append(name).append("{operation=\"").append(operation).append("\"} ").append(value).append('\n');
+    }
+
+    private static class Operation {
+
+        private final Histogram latency = new Histogram();
+
+        private final LongAdder rows = new LongAdder();
+
+        private final LongAdder slow = new LongAdder();
+
+        private final AtomicLong lastLogged = new AtomicLong();
+
+    }
+
+    private static class RequestStats {
+
+        private final Metrics.Route route;
+
+        private int calls;
+
+        private long nanos;
+
+        private RequestStats(Metrics.Route route) {
+            this.route = route;
+        }
+
+    }
+
+}
@@ -20,90 +20,136 @@
  */
 package net.kaw.dev.scheduler.rest.resources;
 
+import jakarta.servlet.http.HttpServletRequest;
 import jakarta.ws.rs.Consumes;
+import jakarta.ws.rs.HeaderParam;
 import jakarta.ws.rs.POST;
 import jakarta.ws.rs.Path;
 import jakarta.ws.rs.Produces;
+import jakarta.ws.rs.container.AsyncResponse;
+import jakarta.ws.rs.container.Suspended;
+import jakarta.ws.rs.core.Context;
+import jakarta.ws.rs.core.EntityTag;
+import jakarta.ws.rs.core.HttpHeaders;
 import jakarta.ws.rs.core.MediaType;
 import jakarta.ws.rs.core.Response;
 import java.sql.SQLException;
-import java.util.HashMap;
-import java.util.List;
 import java.util.Map;
-import java.util.Objects;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 import net.kaw.dev.scheduler.data.Teacher;
 import net.kaw.dev.scheduler.data.factories.MappableFactory;
 import net.kaw.dev.scheduler.exceptions.InvalidDataException;
-import net.kaw.dev.scheduler.persistence.sql.SQLControl;
-import net.kaw.dev.scheduler.persistence.sql.auth.AuthManager;
 import net.kaw.dev.scheduler.persistence.sql.auth.data.AuthInstance;
-import net.kaw.dev.scheduler.rest.resources.utils.RequestUtils;
+import net.kaw.dev.scheduler.rest.persistence.InstrumentedSQLControl;
+import net.kaw.dev.scheduler.rest.resources.utils.AsyncUtils;
+import net.kaw.dev.scheduler.rest.resources.utils.AuthCache;
+import net.kaw.dev.scheduler.rest.resources.utils.AuthLevelIndex;
+import net.kaw.dev.scheduler.rest.resources.utils.AuthUtils;
+import net.kaw.dev.scheduler.rest.resources.utils.JSONStreamUtils;
+import net.kaw.dev.scheduler.rest.resources.utils.Page;
+import net.kaw.dev.scheduler.rest.resources.utils.PageUtils;
+import net.kaw.dev.scheduler.rest.resources.utils.RateLimited;
+import net.kaw.dev.scheduler.rest.resources.utils.RateLimiter;
+import net.kaw.dev.scheduler.rest.resources.utils.RequestBody;
 import net.kaw.dev.scheduler.rest.resources.utils.ResponseUtils;
+import net.kaw.dev.scheduler.rest.resources.utils.VersionUtils;
 import net.kaw.dev.scheduler.utils.JSONUtils;
 
 @Path("auth")
 public class AuthInstancesResource {
 
+    @Context
+    private HttpServletRequest request;
+
+    @HeaderParam(HttpHeaders.IF_NONE_MATCH)
+    private String ifNoneMatch;
+
     public AuthInstancesResource() {
     }
 
     @POST
     @Path(value = "/get")
+    @RateLimited(RateLimiter.Group.READ)
     @Produces(MediaType.TEXT_PLAIN)
     @Consumes(MediaType.TEXT_PLAIN)
-    public Response getAuthInstance(final String jsonString) {
-        return doGetAuthInstance(jsonString);
+    public void getAuthInstance(final String jsonString, @Suspended final AsyncResponse asyncResponse) {
+        RequestBody body = RequestBody.from(request, jsonString);
+
+        AsyncUtils.submit(asyncResponse, () -> doGetAuthInstance(body));
     }
 
     @POST
     @Path(value = "/post")
     @Consumes(MediaType.TEXT_PLAIN)
-    public Response postAuthInstance(final String jsonString) {
-        return doPostAuthInstance(jsonString);
+    public void postAuthInstance(final String jsonString, @Suspended final AsyncResponse asyncResponse) {
+        RequestBody body = RequestBody.from(request, jsonString);
+
+        AsyncUtils.submit(asyncResponse, () -> doPostAuthInstance(body));
     }
 
     @POST
     @Path(value = "/delete")
     @Consumes(MediaType.TEXT_PLAIN)
-    public Response deleteAuthInstance(final String jsonString) {
-        return doDeleteAuthInstance(jsonString);
+    public void deleteAuthInstance(final String jsonString, @Suspended final AsyncResponse asyncResponse) {
+        RequestBody body = RequestBody.from(request, jsonString);
+
+        AsyncUtils.submit(asyncResponse, () -> doDeleteAuthInstance(body));
     }
 
     @POST
     @Path(value = "/authenticate")
+    @RateLimited(RateLimiter.Group.AUTHENTICATE)
     @Produces(MediaType.TEXT_PLAIN)
     @Consumes(MediaType.TEXT_PLAIN)
-    public Response authenticate(final String jsonString) {
-        return doAuthenticate(jsonString);
+    public void authenticate(final String jsonString, @Suspended final AsyncResponse asyncResponse) {
+        RequestBody body = RequestBody.from(request, jsonString);
+
+        AsyncUtils.submit(asyncResponse, () -> doAuthenticate(body));
     }
 
-    private Response doGetAuthInstance(String jsonString) {
+    @POST
+    @Path(value = "/cache")
+    @RateLimited(RateLimiter.Group.READ)
+    @Produces(MediaType.TEXT_PLAIN)
+    @Consumes(MediaType.TEXT_PLAIN)
+    public void getAuthCache(final String jsonString, @Suspended final AsyncResponse asyncResponse) {
+        RequestBody body = RequestBody.from(request, jsonString);
+
+        AsyncUtils.submit(asyncResponse, () -> doGetAuthCache(body));
+    }
+
+    private Response doGetAuthInstance(RequestBody body) {
         try {
-            if (!AuthManager.authenticate(jsonString, 1)) {
+            if (!AuthUtils.authenticate(body, 1)) {
                 return ResponseUtils.createResponse(ResponseUtils.FORBIDDEN);
             }
 
-            Map<String, Object> map = RequestUtils.getMap(jsonString);
+            Map<String, Object> map = body.getMap();
 
             if (map == null) {
                 return ResponseUtils.createResponse(ResponseUtils.BAD_REQUEST);
             }
 
             if (!map.containsKey(AuthInstance.AUTH_TOKEN_KEY)) {
-                return doGetAuthInstances(jsonString);
+                return doGetAuthInstances(body);
+            }
+
+            EntityTag tag = VersionUtils.tag(body, VersionUtils.Collection.AUTH_INSTANCES, VersionUtils.Collection.TEACHERS);
+
+            if (VersionUtils.matches(ifNoneMatch, tag)) {
+                return ResponseUtils.createNotModifiedResponse(tag);
             }
 
             String authToken = (String) map.get(AuthInstance.AUTH_TOKEN_KEY);
 
-            AuthInstance authInstance = SQLControl.AuthInstances.select(authToken);
+            AuthInstance authInstance = InstrumentedSQLControl.AuthInstances.select(authToken);
 
             if (authInstance == null) {
                 return ResponseUtils.createResponse(ResponseUtils.NOT_FOUND);
             }
 
-            return ResponseUtils.createResponse(ResponseUtils.OK, JSONUtils.mapToJSON(authInstance.toMap()));
+            return ResponseUtils.createResponse(ResponseUtils.OK, JSONUtils.mapToJSON(authInstance.toMap()), tag);
         } catch (SQLException | InvalidDataException ex) {
             Logger.getLogger(AuthInstancesResource.class.getName()).log(Level.SEVERE, null, ex);
         }
@@ -111,27 +157,31 @@ public class AuthInstancesResource {
         return ResponseUtils.createResponse(ResponseUtils.INTERNAL_SERVER_ERROR);
     }
 
-    private Response doGetAuthInstances(String jsonString) {
+    private Response doGetAuthInstances(RequestBody body) {
         try {
-            Map<String, Object> map = RequestUtils.getMap(jsonString);
+            Map<String, Object> map = body.getMap();
 
             if (map.containsKey(AuthInstance.AUTH_LEVEL_KEY)) {
-                return doGetAuthInstancesLevel(jsonString);
+                return doGetAuthInstancesLevel(body);
             }
 
-            if (!AuthManager.authenticate(jsonString, 1)) {
+            if (!AuthUtils.authenticate(body, 1)) {
                 return ResponseUtils.createResponse(ResponseUtils.FORBIDDEN);
             }
 
-            List<AuthInstance> authInstances = SQLControl.AuthInstances.select();
+            if (!PageUtils.isValid(map)) {
+                return ResponseUtils.createResponse(ResponseUtils.BAD_REQUEST);
+            }
 
-            Map<String, Object> authInstancesMap = new HashMap<>();
+            EntityTag tag = VersionUtils.tag(body, VersionUtils.Collection.AUTH_INSTANCES, VersionUtils.Collection.TEACHERS);
 
-            for (AuthInstance authInstance : authInstances) {
-                authInstancesMap.put(authInstance.getAuthToken(), authInstance.toMap());
+            if (VersionUtils.matches(ifNoneMatch, tag)) {
+                return ResponseUtils.createNotModifiedResponse(tag);
             }
 
-            return ResponseUtils.createResponse(ResponseUtils.OK, JSONUtils.mapToJSON(authInstancesMap));
+            Page<AuthInstance> page = PageUtils.load(InstrumentedSQLControl.AuthInstances::select, AuthInstance::getAuthToken, map);
+
+            return ResponseUtils.createResponse(ResponseUtils.OK, JSONStreamUtils.stream(page, AuthInstance::getAuthToken, AuthInstance::toMap), tag);
         } catch (SQLException | InvalidDataException ex) {
             Logger.getLogger(AuthInstancesResource.class.getName()).log(Level.SEVERE, null, ex);
         }
@@ -139,9 +189,9 @@ public class AuthInstancesResource {
         return ResponseUtils.createResponse(ResponseUtils.INTERNAL_SERVER_ERROR);
     }
 
-    private Response doGetAuthInstancesLevel(String jsonString) {
+    private Response doGetAuthInstancesLevel(RequestBody body) {
         try {
-            Map<String, Object> map = RequestUtils.getMap(jsonString);
+            Map<String, Object> map = body.getMap();
 
             if (!map.containsKey(AuthInstance.AUTH_LEVEL_KEY)) {
                 return ResponseUtils.createResponse(ResponseUtils.BAD_REQUEST);
@@ -156,21 +206,23 @@ public class AuthInstancesResource {
                 return ResponseUtils.createResponse(ResponseUtils.BAD_REQUEST);
             }
 
-            if (!AuthManager.authenticate(jsonString, authLevel + 1)) {
+            if (!AuthUtils.authenticate(body, authLevel + 1)) {
                 return ResponseUtils.createResponse(ResponseUtils.FORBIDDEN);
             }
 
-            List<AuthInstance> authInstances = SQLControl.AuthInstances.select();
+            if (!PageUtils.isValid(map)) {
+                return ResponseUtils.createResponse(ResponseUtils.BAD_REQUEST);
+            }
 
-            Map<String, Object> authInstancesMap = new HashMap<>();
+            EntityTag tag = VersionUtils.tag(body, VersionUtils.Collection.AUTH_INSTANCES, VersionUtils.Collection.TEACHERS);
 
-            for (AuthInstance authInstance : authInstances) {
-                if (Objects.equals(authInstance.getAuthLevel(), authLevel)) {
-                    authInstancesMap.put(authInstance.getAuthToken(), authInstance.toMap());
-                }
+            if (VersionUtils.matches(ifNoneMatch, tag)) {
+                return ResponseUtils.createNotModifiedResponse(tag);
             }
 
-            return ResponseUtils.createResponse(ResponseUtils.OK, JSONUtils.mapToJSON(authInstancesMap));
+            Page<AuthInstance> page = AuthLevelIndex.page(authLevel, map);
+
+            return ResponseUtils.createResponse(ResponseUtils.OK, JSONStreamUtils.stream(page, AuthInstance::getAuthToken, AuthInstance::toMap), tag);
         } catch (SQLException | InvalidDataException ex) {
             Logger.getLogger(AuthInstancesResource.class.getName()).log(Level.SEVERE, null, ex);
         }
@@ -179,17 +231,21 @@ public class AuthInstancesResource {
     }
 
     @SuppressWarnings("unchecked")
-    private Response doPostAuthInstance(String jsonString) {
+    private Response doPostAuthInstance(RequestBody body) {
         try {
-            if (!AuthManager.authenticate(jsonString, 1)) {
+            if (!AuthUtils.authenticate(body, 1)) {
                 return ResponseUtils.createResponse(ResponseUtils.FORBIDDEN);
             }
 
-            System.out.println(jsonString);
+            AuthInstance authInstance = (AuthInstance) MappableFactory.build(MappableFactory.MappableType.AUTH_INSTANCE, body.getMap());
 
-            AuthInstance authInstance = (AuthInstance) MappableFactory.build(MappableFactory.MappableType.AUTH_INSTANCE, JSONUtils.jsonToMap(jsonString));
+            try {
+                InstrumentedSQLControl.AuthInstances.insert(authInstance);
+            } finally {
+                VersionUtils.bump(VersionUtils.Collection.AUTH_INSTANCES);
 
-            SQLControl.AuthInstances.insert(authInstance);
+                AuthCache.invalidate(authInstance.getAuthToken());
+            }
 
             return ResponseUtils.createResponse(ResponseUtils.OK);
         } catch (SQLException | InvalidDataException ex) {
@@ -199,13 +255,13 @@ public class AuthInstancesResource {
         return ResponseUtils.createResponse(ResponseUtils.INTERNAL_SERVER_ERROR);
     }
 
-    private Response doDeleteAuthInstance(String jsonString) {
+    private Response doDeleteAuthInstance(RequestBody body) {
         try {
-            if (!AuthManager.authenticate(jsonString, 1)) {
+            if (!AuthUtils.authenticate(body, 1)) {
                 return ResponseUtils.createResponse(ResponseUtils.FORBIDDEN);
             }
 
-            Map<String, Object> map = RequestUtils.getMap(jsonString);
+            Map<String, Object> map = body.getMap();
 
             if (map == null) {
                 return ResponseUtils.createResponse(ResponseUtils.BAD_REQUEST);
@@ -217,19 +273,39 @@ public class AuthInstancesResource {
 
             String authToken = (String) map.get(AuthInstance.AUTH_TOKEN_KEY);
 
-            SQLControl.AuthInstances.delete(authToken);
+            try {
+                InstrumentedSQLControl.AuthInstances.delete(authToken);
+            } finally {
+                VersionUtils.bump(VersionUtils.Collection.AUTH_INSTANCES);
+
+                AuthCache.invalidate(authToken);
+            }
 
             return ResponseUtils.createResponse(ResponseUtils.OK);
-        } catch (SQLException ex) {
+        } catch (SQLException | InvalidDataException ex) {
+            Logger.getLogger(AuthInstancesResource.class.getName()).log(Level.SEVERE, null, ex);
+        }
+
+        return ResponseUtils.createResponse(ResponseUtils.INTERNAL_SERVER_ERROR);
+    }
+
+    private Response doGetAuthCache(RequestBody body) {
+        try {
+            if (!AuthUtils.authenticate(body, 1)) {
+                return ResponseUtils.createResponse(ResponseUtils.FORBIDDEN);
+            }
+
+            return ResponseUtils.createResponse(ResponseUtils.OK, JSONUtils.mapToJSON(AuthCache.toMap()));
+        } catch (SQLException | InvalidDataException ex) {
             Logger.getLogger(AuthInstancesResource.class.getName()).log(Level.SEVERE, null, ex);
         }
 
         return ResponseUtils.createResponse(ResponseUtils.INTERNAL_SERVER_ERROR);
     }
 
-    private Response doAuthenticate(String jsonString) {
+    private Response doAuthenticate(RequestBody body) {
         try {
-            Map<String, Object> map = RequestUtils.getMap(jsonString);
+            Map<String, Object> map = body.getMap();
 
             if (map == null) {
                 return ResponseUtils.createResponse(ResponseUtils.BAD_REQUEST);
@@ -243,7 +319,7 @@ public class AuthInstancesResource {
 
             String password = (String) map.get(AuthInstance.AUTH_PASSWORD_KEY);
 
-            AuthInstance authInstance = SQLControl.AuthInstances.authenticate(username, password);
+            AuthInstance authInstance = InstrumentedSQLControl.AuthInstances.authenticate(username, password);
 
             if (authInstance == null) {
                 return ResponseUtils.createResponse(ResponseUtils.NOT_FOUND);
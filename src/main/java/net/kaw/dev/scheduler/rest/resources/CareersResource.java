@@ -23,12 +23,24 @@ package net.kaw.dev.scheduler.rest.resources;
 import jakarta.websocket.server.PathParam;
 import jakarta.ws.rs.DELETE;
 import jakarta.ws.rs.Path;
+import jakarta.ws.rs.container.AsyncResponse;
+import jakarta.ws.rs.container.Suspended;
 import jakarta.ws.rs.core.Response;
 import java.sql.SQLException;
+import java.util.concurrent.locks.Lock;
 import java.util.logging.Level;
 import java.util.logging.Logger;
-import net.kaw.dev.scheduler.persistence.sql.SQLControl;
+import net.kaw.dev.scheduler.rest.persistence.InstrumentedSQLControl;
+import net.kaw.dev.scheduler.rest.resources.utils.AsyncUtils;
+import net.kaw.dev.scheduler.rest.resources.utils.AuthCache;
+import net.kaw.dev.scheduler.rest.resources.utils.AuthLevelIndex;
+import net.kaw.dev.scheduler.rest.resources.utils.AvailabilityIndex;
+import net.kaw.dev.scheduler.rest.resources.utils.ChangeLog;
+import net.kaw.dev.scheduler.rest.resources.utils.ConflictDetector;
+import net.kaw.dev.scheduler.rest.resources.utils.EntityCache;
 import net.kaw.dev.scheduler.rest.resources.utils.ResponseUtils;
+import net.kaw.dev.scheduler.rest.resources.utils.VersionUtils;
+import net.kaw.dev.scheduler.rest.resources.utils.WriteLocks;
 
 @Path("careers")
 public class CareersResource {
@@ -38,13 +50,39 @@ public class CareersResource {
 
     @DELETE
     @Path(value = "/delete/{id}")
-    public Response deleteCareer(@PathParam(value = "id") final String id) {
-        return doDeleteCareer(id);
+    public void deleteCareer(@PathParam(value = "id") final String id, @Suspended final AsyncResponse asyncResponse) {
+        AsyncUtils.submit(asyncResponse, () -> doDeleteCareer(id));
     }
 
     private Response doDeleteCareer(String id) {
         try {
-            SQLControl.Careers.delete(id);
+            try {
+                Lock lock = WriteLocks.get(VersionUtils.Collection.CAREERS, id);
+
+                lock.lock();
+
+                try {
+                    InstrumentedSQLControl.Careers.delete(id);
+
+                    ChangeLog.delete(VersionUtils.Collection.CAREERS, id);
+                    ChangeLog.reset(VersionUtils.Collection.TEACHERS);
+                } finally {
+                    lock.unlock();
+                }
+            } finally {
+                VersionUtils.bump(VersionUtils.Collection.CAREERS);
+                VersionUtils.bump(VersionUtils.Collection.TEACHERS);
+
+                EntityCache.TEACHERS.clear();
+
+                AuthCache.clear();
+
+                AuthLevelIndex.invalidate();
+
+                AvailabilityIndex.invalidate();
+
+                ConflictDetector.invalidate();
+            }
 
             return ResponseUtils.createResponse(200, true);
         } catch (SQLException ex) {
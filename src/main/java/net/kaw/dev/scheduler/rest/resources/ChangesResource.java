@@ -0,0 +1,97 @@
+/*
+ * MIT License
+ * 
+ * Copyright (c) 2023 Kawtious
+ * 
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and
+ * associated documentation files (the "Software"), to deal in the Software without restriction,
+ * including without limitation the rights to use, copy, modify, merge, publish, distribute,
+ * sublicense, and/or sell copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ * 
+ * The above copyright notice and this permission notice shall be included in all copies or
+ * substantial portions of the Software.
+ * 
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT
+ * NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM,
+ * DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+package net.kaw.dev.scheduler.rest.resources;
+
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.ws.rs.Consumes;
+import jakarta.ws.rs.POST;
+import jakarta.ws.rs.Path;
+import jakarta.ws.rs.Produces;
+import jakarta.ws.rs.QueryParam;
+import jakarta.ws.rs.container.AsyncResponse;
+import jakarta.ws.rs.container.Suspended;
+import jakarta.ws.rs.core.Context;
+import jakarta.ws.rs.core.MediaType;
+import jakarta.ws.rs.core.Response;
+import java.sql.SQLException;
+import java.util.Map;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+import net.kaw.dev.scheduler.exceptions.InvalidDataException;
+import net.kaw.dev.scheduler.rest.resources.utils.AsyncUtils;
+import net.kaw.dev.scheduler.rest.resources.utils.AuthUtils;
+import net.kaw.dev.scheduler.rest.resources.utils.ChangeLog;
+import net.kaw.dev.scheduler.rest.resources.utils.PageUtils;
+import net.kaw.dev.scheduler.rest.resources.utils.RateLimited;
+import net.kaw.dev.scheduler.rest.resources.utils.RateLimiter;
+import net.kaw.dev.scheduler.rest.resources.utils.RequestBody;
+import net.kaw.dev.scheduler.rest.resources.utils.ResponseUtils;
+import net.kaw.dev.scheduler.utils.JSONUtils;
+
+@Path("changes")
+public class ChangesResource {
+
+    @Context
+    private HttpServletRequest request;
+
+    public ChangesResource() {
+    }
+
+    @POST
+    @Path(value = "/get")
+    @RateLimited(RateLimiter.Group.READ)
+    @Produces(MediaType.TEXT_PLAIN)
+    @Consumes(MediaType.TEXT_PLAIN)
+    public void getChanges(@QueryParam(ChangeLog.SINCE_KEY) final Long since, final String jsonString, @Suspended final AsyncResponse asyncResponse) {
+        RequestBody body = RequestBody.from(request, jsonString);
+
+        AsyncUtils.submit(asyncResponse, () -> doGetChanges(body, since));
+    }
+
+    private Response doGetChanges(RequestBody body, Long since) {
+        try {
+            if (!AuthUtils.authenticate(body, 0)) {
+                return ResponseUtils.createResponse(ResponseUtils.FORBIDDEN);
+            }
+
+            Map<String, Object> map = body.getMap();
+
+            if (since == null && map != null && map.get(ChangeLog.SINCE_KEY) instanceof Number) {
+                since = ((Number) map.get(ChangeLog.SINCE_KEY)).longValue();
+            }
+
+            if (since == null) {
+                return ResponseUtils.createResponse(ResponseUtils.BAD_REQUEST);
+            }
+
+            if (!PageUtils.isValid(map)) {
+                return ResponseUtils.createResponse(ResponseUtils.BAD_REQUEST);
+            }
+
+            return ResponseUtils.createResponse(ResponseUtils.OK, JSONUtils.mapToJSON(ChangeLog.since(since, PageUtils.getLimit(map))));
+        } catch (SQLException | InvalidDataException ex) {
+            Logger.getLogger(ChangesResource.class.getName()).log(Level.SEVERE, null, ex);
+        }
+
+        return ResponseUtils.createResponse(ResponseUtils.INTERNAL_SERVER_ERROR);
+    }
+
+}
@@ -20,89 +20,151 @@
  */
 package net.kaw.dev.scheduler.rest.resources;
 
+import jakarta.servlet.http.HttpServletRequest;
 import jakarta.ws.rs.Consumes;
+import jakarta.ws.rs.HeaderParam;
 import jakarta.ws.rs.POST;
 import jakarta.ws.rs.Path;
 import jakarta.ws.rs.Produces;
+import jakarta.ws.rs.container.AsyncResponse;
+import jakarta.ws.rs.container.Suspended;
+import jakarta.ws.rs.core.Context;
+import jakarta.ws.rs.core.EntityTag;
+import jakarta.ws.rs.core.HttpHeaders;
 import jakarta.ws.rs.core.MediaType;
 import jakarta.ws.rs.core.Response;
 import java.sql.SQLException;
-import java.util.Date;
-import java.util.HashMap;
-import java.util.List;
 import java.util.Map;
+import java.util.concurrent.locks.Lock;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 import net.kaw.dev.scheduler.data.Cycle;
 import net.kaw.dev.scheduler.data.factories.MappableFactory;
 import net.kaw.dev.scheduler.exceptions.InvalidDataException;
-import net.kaw.dev.scheduler.persistence.sql.SQLControl;
-import net.kaw.dev.scheduler.persistence.sql.auth.AuthManager;
+import net.kaw.dev.scheduler.rest.persistence.InstrumentedSQLControl;
+import net.kaw.dev.scheduler.rest.resources.utils.AsyncUtils;
+import net.kaw.dev.scheduler.rest.resources.utils.AuthUtils;
+import net.kaw.dev.scheduler.rest.resources.utils.CBOREntity;
+import net.kaw.dev.scheduler.rest.resources.utils.CBORUtils;
+import net.kaw.dev.scheduler.rest.resources.utils.ChangeLog;
+import net.kaw.dev.scheduler.rest.resources.utils.CycleIndex;
+import net.kaw.dev.scheduler.rest.resources.utils.EntityCache;
+import net.kaw.dev.scheduler.rest.resources.utils.FieldUtils;
+import net.kaw.dev.scheduler.rest.resources.utils.JSONStreamUtils;
+import net.kaw.dev.scheduler.rest.resources.utils.Page;
+import net.kaw.dev.scheduler.rest.resources.utils.PageUtils;
+import net.kaw.dev.scheduler.rest.resources.utils.RateLimited;
+import net.kaw.dev.scheduler.rest.resources.utils.RateLimiter;
+import net.kaw.dev.scheduler.rest.resources.utils.RequestBody;
 import net.kaw.dev.scheduler.rest.resources.utils.RequestUtils;
 import net.kaw.dev.scheduler.rest.resources.utils.ResponseUtils;
+import net.kaw.dev.scheduler.rest.resources.utils.SnapshotCache;
+import net.kaw.dev.scheduler.rest.resources.utils.VersionUtils;
+import net.kaw.dev.scheduler.rest.resources.utils.WriteLocks;
 import net.kaw.dev.scheduler.utils.JSONUtils;
 
 @Path("cycles")
 public class CyclesResource {
 
+    private static final SnapshotCache<Cycle> SNAPSHOT = new SnapshotCache<>(VersionUtils.Collection.CYCLES,
+            InstrumentedSQLControl.Cycles::select, CyclesResource::getCursor, Cycle::getId, Cycle::toMap);
+
+    @Context
+    private HttpServletRequest request;
+
+    @HeaderParam(HttpHeaders.IF_NONE_MATCH)
+    private String ifNoneMatch;
+
+    @HeaderParam(HttpHeaders.ACCEPT_ENCODING)
+    private String acceptEncoding;
+
+    @HeaderParam(HttpHeaders.ACCEPT)
+    private String accept;
+
     public CyclesResource() {
     }
 
     @POST
     @Path(value = "/get")
-    @Produces(MediaType.TEXT_PLAIN)
+    @RateLimited(RateLimiter.Group.READ)
+    @Produces({MediaType.TEXT_PLAIN, RequestUtils.CBOR})
     @Consumes(MediaType.TEXT_PLAIN)
-    public Response getCycles(final String jsonString) {
-        return doGetCycle(jsonString);
+    public void getCycles(final String jsonString, @Suspended final AsyncResponse asyncResponse) {
+        RequestBody body = RequestBody.from(request, jsonString);
+
+        AsyncUtils.submit(asyncResponse, () -> doGetCycle(body));
     }
 
     @POST
     @Path(value = "/current")
+    @RateLimited(RateLimiter.Group.READ)
     @Produces(MediaType.TEXT_PLAIN)
     @Consumes(MediaType.TEXT_PLAIN)
-    public Response getCurrentCycle(final String jsonString) {
-        return doGetCurrentCycle(jsonString);
+    public void getCurrentCycle(final String jsonString, @Suspended final AsyncResponse asyncResponse) {
+        RequestBody body = RequestBody.from(request, jsonString);
+
+        AsyncUtils.submit(asyncResponse, () -> doGetCurrentCycle(body));
     }
 
     @POST
     @Path(value = "/post")
     @Consumes(MediaType.TEXT_PLAIN)
-    public Response postCycle(final String jsonString) {
-        return doPostCycle(jsonString);
+    public void postCycle(final String jsonString, @Suspended final AsyncResponse asyncResponse) {
+        RequestBody body = RequestBody.from(request, jsonString);
+
+        AsyncUtils.submit(asyncResponse, () -> doPostCycle(body));
     }
 
     @POST
     @Path(value = "/delete")
     @Consumes(MediaType.TEXT_PLAIN)
-    public Response deleteCycle(final String jsonString) {
-        return doDeleteCycle(jsonString);
+    public void deleteCycle(final String jsonString, @Suspended final AsyncResponse asyncResponse) {
+        RequestBody body = RequestBody.from(request, jsonString);
+
+        AsyncUtils.submit(asyncResponse, () -> doDeleteCycle(body));
     }
 
-    private Response doGetCycle(String jsonString) {
+    private Response doGetCycle(RequestBody body) {
         try {
-            if (!AuthManager.authenticate(jsonString, 0)) {
+            if (!AuthUtils.authenticate(body, 0)) {
                 return ResponseUtils.createResponse(ResponseUtils.FORBIDDEN);
             }
 
-            Map<String, Object> map = RequestUtils.getMap(jsonString);
+            Map<String, Object> map = body.getMap();
+
+            EntityTag tag = VersionUtils.tag(body, VersionUtils.Collection.CYCLES);
+
+            if (CBORUtils.acceptsCBOR(accept)) {
+                tag = VersionUtils.variant(tag, RequestUtils.CBOR_VARIANT);
+            } else if ((map == null || !map.containsKey(Cycle.ID_KEY)) && SnapshotCache.covers(map)) {
+                tag = SnapshotCache.variant(tag, acceptEncoding);
+            }
+
+            if (VersionUtils.matches(ifNoneMatch, tag)) {
+                return ResponseUtils.createNotModifiedResponse(tag, ResponseUtils.VARY_NEGOTIATED);
+            }
+
+            if (!FieldUtils.isValid(map)) {
+                return ResponseUtils.createResponse(ResponseUtils.BAD_REQUEST);
+            }
 
             if (map == null) {
-                return doGetCycles();
+                return doGetCycles(null, tag);
             }
 
             if (!map.containsKey(Cycle.ID_KEY)) {
-                return doGetCycles();
+                return doGetCycles(map, tag);
             }
 
             String id = (String) map.get(Cycle.ID_KEY);
 
-            Cycle cycle = SQLControl.Cycles.select(id);
+            Cycle cycle = EntityCache.CYCLES.get(id);
 
             if (cycle == null) {
                 return ResponseUtils.createResponse(ResponseUtils.INTERNAL_SERVER_ERROR);
             }
 
-            return ResponseUtils.createResponse(ResponseUtils.OK, JSONUtils.mapToJSON(cycle.toMap()));
+            return createEntityResponse(FieldUtils.project(cycle.toMap(), FieldUtils.getFields(map)), tag);
         } catch (SQLException | InvalidDataException ex) {
             Logger.getLogger(CyclesResource.class.getName()).log(Level.SEVERE, null, ex);
         }
@@ -110,18 +172,26 @@ public class CyclesResource {
         return ResponseUtils.createResponse(ResponseUtils.INTERNAL_SERVER_ERROR);
     }
 
-    private Response doGetCycles() {
+    private Response doGetCycles(Map<String, Object> map, EntityTag tag) {
         try {
-            List<Cycle> cycles = SQLControl.Cycles.select();
+            if (!PageUtils.isValid(map)) {
+                return ResponseUtils.createResponse(ResponseUtils.BAD_REQUEST);
+            }
+
+            boolean cbor = CBORUtils.acceptsCBOR(accept);
+
+            if (!cbor && SnapshotCache.covers(map)) {
+                return SNAPSHOT.get().toResponse(acceptEncoding, tag);
+            }
 
-            Map<String, Object> cyclesMap = new HashMap<>();
+            Page<Cycle> page = PageUtils.load(InstrumentedSQLControl.Cycles::select, CyclesResource::getCursor, map);
 
-            // Todo: Order by period
-            for (Cycle cycle : cycles) {
-                cyclesMap.put(cycle.getId(), cycle.toMap());
+            if (cbor) {
+                return ResponseUtils.createResponse(ResponseUtils.OK, CBOREntity.of(page, Cycle::getId, FieldUtils.project(Cycle::toMap, FieldUtils.getFields(map))), tag,
+                        MediaType.valueOf(RequestUtils.CBOR));
             }
 
-            return ResponseUtils.createResponse(ResponseUtils.OK, JSONUtils.mapToJSON(cyclesMap));
+            return ResponseUtils.createResponse(ResponseUtils.OK, JSONStreamUtils.stream(page, Cycle::getId, FieldUtils.project(Cycle::toMap, FieldUtils.getFields(map))), tag, (MediaType) null);
         } catch (SQLException | InvalidDataException ex) {
             Logger.getLogger(CyclesResource.class.getName()).log(Level.SEVERE, null, ex);
         }
@@ -129,27 +199,31 @@ public class CyclesResource {
         return ResponseUtils.createResponse(ResponseUtils.INTERNAL_SERVER_ERROR);
     }
 
-    private Response doGetCurrentCycle(String jsonString) {
-        try {
-            if (!AuthManager.authenticate(jsonString, 0)) {
-                return ResponseUtils.createResponse(ResponseUtils.FORBIDDEN);
-            }
+    private Response createEntityResponse(Map<String, Object> map, EntityTag tag) {
+        if (CBORUtils.acceptsCBOR(accept)) {
+            return ResponseUtils.createResponse(ResponseUtils.OK, CBOREntity.of(map), tag, MediaType.valueOf(RequestUtils.CBOR));
+        }
 
-            List<Cycle> cycles = SQLControl.Cycles.select();
+        return ResponseUtils.createResponse(ResponseUtils.OK, JSONUtils.mapToJSON(map), tag, (MediaType) null);
+    }
 
-            Date date = new Date();
+    private static String getCursor(Cycle cycle) {
+        return PageUtils.cursorOf(cycle.getStart(), cycle.getId());
+    }
 
-            long timeMilli = date.getTime();
+    private Response doGetCurrentCycle(RequestBody body) {
+        try {
+            if (!AuthUtils.authenticate(body, 0)) {
+                return ResponseUtils.createResponse(ResponseUtils.FORBIDDEN);
+            }
 
-            Cycle currentCycle = cycles.get(0);
+            String json = CycleIndex.getCurrentJSON();
 
-            for (Cycle cycle : cycles) {
-                if (timeMilli >= cycle.getStart() && timeMilli <= cycle.getEnd()) {
-                    currentCycle = cycle;
-                }
+            if (json == null) {
+                return ResponseUtils.createResponse(ResponseUtils.NOT_FOUND);
             }
 
-            return ResponseUtils.createResponse(ResponseUtils.OK, JSONUtils.mapToJSON(currentCycle.toMap()));
+            return ResponseUtils.createResponse(ResponseUtils.OK, json);
         } catch (SQLException | InvalidDataException ex) {
             Logger.getLogger(CyclesResource.class.getName()).log(Level.SEVERE, null, ex);
         }
@@ -157,15 +231,35 @@ public class CyclesResource {
         return ResponseUtils.createResponse(ResponseUtils.INTERNAL_SERVER_ERROR);
     }
 
-    private Response doPostCycle(String jsonString) {
+    private Response doPostCycle(RequestBody body) {
         try {
-            if (!AuthManager.authenticate(jsonString, 1)) {
+            if (!AuthUtils.authenticate(body, 1)) {
                 return ResponseUtils.createResponse(ResponseUtils.FORBIDDEN);
             }
 
-            Cycle cycle = (Cycle) MappableFactory.build(MappableFactory.MappableType.CYCLE, JSONUtils.jsonToMap(jsonString));
+            Cycle cycle = (Cycle) MappableFactory.build(MappableFactory.MappableType.CYCLE, body.getMap());
+
+            try {
+                Lock lock = WriteLocks.get(VersionUtils.Collection.CYCLES, cycle.getId());
+
+                lock.lock();
+
+                try {
+                    InstrumentedSQLControl.Cycles.insert(cycle);
+
+                    ChangeLog.upsert(VersionUtils.Collection.CYCLES, cycle.getId(), cycle.toMap());
+                } finally {
+                    lock.unlock();
+                }
+            } finally {
+                VersionUtils.bump(VersionUtils.Collection.CYCLES);
 
-            SQLControl.Cycles.insert(cycle);
+                EntityCache.CYCLES.invalidate(cycle.getId());
+
+                CycleIndex.invalidate();
+            }
+
+            CycleIndex.rebuild();
 
             return ResponseUtils.createResponse(ResponseUtils.OK);
         } catch (SQLException | InvalidDataException ex) {
@@ -175,13 +269,13 @@ public class CyclesResource {
         return ResponseUtils.createResponse(ResponseUtils.INTERNAL_SERVER_ERROR);
     }
 
-    private Response doDeleteCycle(String jsonString) {
+    private Response doDeleteCycle(RequestBody body) {
         try {
-            if (!AuthManager.authenticate(jsonString, 1)) {
+            if (!AuthUtils.authenticate(body, 1)) {
                 return ResponseUtils.createResponse(ResponseUtils.FORBIDDEN);
             }
 
-            Map<String, Object> map = RequestUtils.getMap(jsonString);
+            Map<String, Object> map = body.getMap();
 
             if (map == null) {
                 return ResponseUtils.createResponse(ResponseUtils.BAD_REQUEST);
@@ -193,10 +287,30 @@ public class CyclesResource {
 
             String id = (String) map.get(Cycle.ID_KEY);
 
-            SQLControl.Cycles.delete(id);
+            try {
+                Lock lock = WriteLocks.get(VersionUtils.Collection.CYCLES, id);
+
+                lock.lock();
+
+                try {
+                    InstrumentedSQLControl.Cycles.delete(id);
+
+                    ChangeLog.delete(VersionUtils.Collection.CYCLES, id);
+                } finally {
+                    lock.unlock();
+                }
+            } finally {
+                VersionUtils.bump(VersionUtils.Collection.CYCLES);
+
+                EntityCache.CYCLES.invalidate(id);
+
+                CycleIndex.invalidate();
+            }
+
+            CycleIndex.rebuild();
 
             return ResponseUtils.createResponse(ResponseUtils.OK, true);
-        } catch (SQLException ex) {
+        } catch (SQLException | InvalidDataException ex) {
             Logger.getLogger(CyclesResource.class.getName()).log(Level.SEVERE, null, ex);
         }
 
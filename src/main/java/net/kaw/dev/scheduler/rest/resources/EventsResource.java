@@ -0,0 +1,85 @@
+/*
+ * MIT License
+ * 
+ * Copyright (c) 2023 Kawtious
+ * 
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and
+ * associated documentation files (the "Software"), to deal in the Software without restriction,
+ * including without limitation the rights to use, copy, modify, merge, publish, distribute,
+ * sublicense, and/or sell copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ * 
+ * The above copyright notice and this permission notice shall be included in all copies or
+ * substantial portions of the Software.
+ * 
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT
+ * NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM,
+ * DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+package net.kaw.dev.scheduler.rest.resources;
+
+import jakarta.ws.rs.GET;
+import jakarta.ws.rs.HeaderParam;
+import jakarta.ws.rs.Path;
+import jakarta.ws.rs.Produces;
+import jakarta.ws.rs.WebApplicationException;
+import jakarta.ws.rs.core.Context;
+import jakarta.ws.rs.core.HttpHeaders;
+import jakarta.ws.rs.core.MediaType;
+import jakarta.ws.rs.sse.Sse;
+import jakarta.ws.rs.sse.SseEventSink;
+import java.sql.SQLException;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+import net.kaw.dev.scheduler.exceptions.InvalidDataException;
+import net.kaw.dev.scheduler.persistence.sql.auth.data.AuthInstance;
+import net.kaw.dev.scheduler.rest.resources.utils.AuthCache;
+import net.kaw.dev.scheduler.rest.resources.utils.AuthUtils;
+import net.kaw.dev.scheduler.rest.resources.utils.EventBroadcaster;
+import net.kaw.dev.scheduler.rest.resources.utils.ResponseUtils;
+
+@Path("events")
+public class EventsResource {
+
+    public EventsResource() {
+    }
+
+    @GET
+    @Produces(MediaType.SERVER_SENT_EVENTS)
+    public void getEvents(@HeaderParam(HttpHeaders.AUTHORIZATION) final String authorization,
+            @HeaderParam(HttpHeaders.LAST_EVENT_ID_HEADER) final String lastEventId,
+            @Context final Sse sse, @Context final SseEventSink sink) {
+        if (!isAuthenticated(AuthUtils.getBearerToken(authorization))) {
+            throw new WebApplicationException(ResponseUtils.createResponse(ResponseUtils.FORBIDDEN));
+        }
+
+        EventBroadcaster.subscribe(sse, sink, parseEventId(lastEventId));
+    }
+
+    private static boolean isAuthenticated(String authToken) {
+        try {
+            AuthInstance authInstance = AuthCache.get(authToken);
+
+            return authInstance != null && authInstance.getAuthLevel() != null && authInstance.getAuthLevel() >= 0;
+        } catch (SQLException | InvalidDataException ex) {
+            Logger.getLogger(EventsResource.class.getName()).log(Level.SEVERE, null, ex);
+        }
+
+        return false;
+    }
+
+    private static Long parseEventId(String lastEventId) {
+        if (lastEventId == null) {
+            return null;
+        }
+
+        try {
+            return Long.parseLong(lastEventId.trim());
+        } catch (NumberFormatException ex) {
+            return null;
+        }
+    }
+
+}
@@ -0,0 +1,69 @@
+/*
+ * MIT License
+ * 
+ * Copyright (c) 2023 Kawtious
+ * 
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and
+ * associated documentation files (the "Software"), to deal in the Software without restriction,
+ * including without limitation the rights to use, copy, modify, merge, publish, distribute,
+ * sublicense, and/or sell copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ * 
+ * The above copyright notice and this permission notice shall be included in all copies or
+ * substantial portions of the Software.
+ * 
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT
+ * NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM,
+ * DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+package net.kaw.dev.scheduler.rest.resources;
+
+import jakarta.ws.rs.GET;
+import jakarta.ws.rs.HeaderParam;
+import jakarta.ws.rs.Path;
+import jakarta.ws.rs.Produces;
+import jakarta.ws.rs.core.HttpHeaders;
+import jakarta.ws.rs.core.Response;
+import java.sql.SQLException;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+import net.kaw.dev.scheduler.exceptions.InvalidDataException;
+import net.kaw.dev.scheduler.persistence.sql.auth.data.AuthInstance;
+import net.kaw.dev.scheduler.rest.resources.utils.AuthCache;
+import net.kaw.dev.scheduler.rest.resources.utils.AuthUtils;
+import net.kaw.dev.scheduler.rest.resources.utils.Metrics;
+import net.kaw.dev.scheduler.rest.resources.utils.ResponseUtils;
+
+@Path("metrics")
+public class MetricsResource {
+
+    public static final String PROMETHEUS_TEXT = "text/plain; version=0.0.4";
+
+    public MetricsResource() {
+    }
+
+    @GET
+    @Produces(PROMETHEUS_TEXT)
+    public Response getMetrics(@HeaderParam(HttpHeaders.AUTHORIZATION) final String authorization) {
+        if (!isAuthenticated(AuthUtils.getBearerToken(authorization))) {
+            return ResponseUtils.createResponse(ResponseUtils.FORBIDDEN);
+        }
+
+        return ResponseUtils.createResponse(ResponseUtils.OK, Metrics.render());
+    }
+
+    private static boolean isAuthenticated(String authToken) {
+        try {
+            AuthInstance authInstance = AuthCache.get(authToken);
+
+            return authInstance != null && authInstance.getAuthLevel() != null && authInstance.getAuthLevel() >= 1;
+        } catch (SQLException | InvalidDataException ex) {
+            Logger.getLogger(MetricsResource.class.getName()).log(Level.SEVERE, null, ex);
+        }
+
+        return false;
+    }
+
+}
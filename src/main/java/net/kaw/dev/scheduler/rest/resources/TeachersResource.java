@@ -20,96 +20,226 @@
  */
 package net.kaw.dev.scheduler.rest.resources;
 
+import jakarta.servlet.http.HttpServletRequest;
 import jakarta.ws.rs.Consumes;
+import jakarta.ws.rs.DefaultValue;
+import jakarta.ws.rs.HeaderParam;
 import jakarta.ws.rs.POST;
 import jakarta.ws.rs.Path;
 import jakarta.ws.rs.Produces;
+import jakarta.ws.rs.QueryParam;
+import jakarta.ws.rs.container.AsyncResponse;
+import jakarta.ws.rs.container.Suspended;
+import jakarta.ws.rs.core.Context;
+import jakarta.ws.rs.core.EntityTag;
+import jakarta.ws.rs.core.HttpHeaders;
 import jakarta.ws.rs.core.MediaType;
 import jakarta.ws.rs.core.Response;
+import jakarta.ws.rs.core.StreamingOutput;
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
 import java.sql.SQLException;
+import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.locks.Lock;
 import java.util.logging.Level;
 import java.util.logging.Logger;
-import net.kaw.dev.scheduler.data.ScheduleMap;
 import net.kaw.dev.scheduler.data.Teacher;
 import net.kaw.dev.scheduler.data.factories.MappableFactory;
 import net.kaw.dev.scheduler.exceptions.InvalidDataException;
-import net.kaw.dev.scheduler.persistence.sql.SQLControl;
-import net.kaw.dev.scheduler.persistence.sql.auth.AuthManager;
 import net.kaw.dev.scheduler.persistence.sql.auth.data.AuthInstance;
+import net.kaw.dev.scheduler.rest.persistence.InstrumentedSQLControl;
+import net.kaw.dev.scheduler.rest.resources.utils.AsyncUtils;
+import net.kaw.dev.scheduler.rest.resources.utils.AuthCache;
+import net.kaw.dev.scheduler.rest.resources.utils.AuthLevelIndex;
+import net.kaw.dev.scheduler.rest.resources.utils.AuthUtils;
+import net.kaw.dev.scheduler.rest.resources.utils.AvailabilityIndex;
+import net.kaw.dev.scheduler.rest.resources.utils.CBOREntity;
+import net.kaw.dev.scheduler.rest.resources.utils.CBORUtils;
+import net.kaw.dev.scheduler.rest.resources.utils.ChangeLog;
+import net.kaw.dev.scheduler.rest.resources.utils.ConflictDetector;
+import net.kaw.dev.scheduler.rest.resources.utils.EntityCache;
+import net.kaw.dev.scheduler.rest.resources.utils.FieldUtils;
+import net.kaw.dev.scheduler.rest.resources.utils.JSONStreamUtils;
+import net.kaw.dev.scheduler.rest.resources.utils.Page;
+import net.kaw.dev.scheduler.rest.resources.utils.PageUtils;
+import net.kaw.dev.scheduler.rest.resources.utils.RateLimited;
+import net.kaw.dev.scheduler.rest.resources.utils.RateLimiter;
+import net.kaw.dev.scheduler.rest.resources.utils.RequestBody;
 import net.kaw.dev.scheduler.rest.resources.utils.RequestUtils;
 import net.kaw.dev.scheduler.rest.resources.utils.ResponseUtils;
+import net.kaw.dev.scheduler.rest.resources.utils.SnapshotCache;
+import net.kaw.dev.scheduler.rest.resources.utils.TeacherPersistence;
+import net.kaw.dev.scheduler.rest.resources.utils.VersionUtils;
+import net.kaw.dev.scheduler.rest.resources.utils.WriteLocks;
 import net.kaw.dev.scheduler.utils.JSONUtils;
 
 @Path("teachers")
 public class TeachersResource {
 
+    private static final String FROM_KEY = "from";
+
+    private static final String TO_KEY = "to";
+
+    private static final String BUSY_KEY = "busy";
+
+    private static final String TEACHERS_KEY = "teachers";
+
+    private static final String BATCH_SIZE_KEY = "batch_size";
+
+    private static final int MAX_BATCH_SIZE = 1000;
+
+    private static final SnapshotCache<Teacher> SNAPSHOT = new SnapshotCache<>(VersionUtils.Collection.TEACHERS,
+            InstrumentedSQLControl.Teachers::select, Teacher::getId, Teacher::getId, Teacher::toMap);
+
+    @Context
+    private HttpServletRequest request;
+
+    @HeaderParam(HttpHeaders.IF_NONE_MATCH)
+    private String ifNoneMatch;
+
+    @HeaderParam(HttpHeaders.ACCEPT_ENCODING)
+    private String acceptEncoding;
+
+    @HeaderParam(HttpHeaders.ACCEPT)
+    private String accept;
+
     public TeachersResource() {
     }
 
     @POST
     @Path(value = "/get")
-    @Produces(MediaType.TEXT_PLAIN)
+    @RateLimited(RateLimiter.Group.READ)
+    @Produces({MediaType.TEXT_PLAIN, RequestUtils.CBOR})
     @Consumes(MediaType.TEXT_PLAIN)
-    public Response getTeacher(final String jsonString) {
-        return doGetTeacher(jsonString);
+    public void getTeacher(final String jsonString, @Suspended final AsyncResponse asyncResponse) {
+        RequestBody body = RequestBody.from(request, jsonString);
+
+        AsyncUtils.submit(asyncResponse, () -> doGetTeacher(body));
     }
 
     @POST
     @Path(value = "/post")
     @Consumes(MediaType.TEXT_PLAIN)
-    public Response postTeacher(final String jsonString) {
-        return doPostTeacher(jsonString);
+    public void postTeacher(final String jsonString, @Suspended final AsyncResponse asyncResponse) {
+        RequestBody body = RequestBody.from(request, jsonString);
+
+        AsyncUtils.submit(asyncResponse, () -> doPostTeacher(body));
     }
 
     @POST
     @Path(value = "/delete")
     @Consumes(MediaType.TEXT_PLAIN)
-    public Response deleteTeacher(final String jsonString) {
-        return doDeleteTeacher(jsonString);
+    public void deleteTeacher(final String jsonString, @Suspended final AsyncResponse asyncResponse) {
+        RequestBody body = RequestBody.from(request, jsonString);
+
+        AsyncUtils.submit(asyncResponse, () -> doDeleteTeacher(body));
+    }
+
+    @POST
+    @Path(value = "/free")
+    @RateLimited(RateLimiter.Group.READ)
+    @Produces(MediaType.TEXT_PLAIN)
+    @Consumes(MediaType.TEXT_PLAIN)
+    public void getFreeTeachers(final String jsonString, @Suspended final AsyncResponse asyncResponse) {
+        RequestBody body = RequestBody.from(request, jsonString);
+
+        AsyncUtils.submit(asyncResponse, () -> doGetFreeTeachers(body));
     }
 
-    private Response doGetTeacher(String jsonString) {
+    @POST
+    @Path(value = "/conflicts")
+    @RateLimited(RateLimiter.Group.READ)
+    @Produces(MediaType.TEXT_PLAIN)
+    @Consumes(MediaType.TEXT_PLAIN)
+    public void getConflicts(final String jsonString, @Suspended final AsyncResponse asyncResponse) {
+        RequestBody body = RequestBody.from(request, jsonString);
+
+        AsyncUtils.submit(asyncResponse, () -> doGetConflicts(body));
+    }
+
+    @POST
+    @Path(value = "/import")
+    @Produces(RequestUtils.NDJSON)
+    @Consumes(RequestUtils.NDJSON)
+    public void importTeachers(final InputStream input, @QueryParam(BATCH_SIZE_KEY) @DefaultValue("100") final int batchSize,
+            @Suspended final AsyncResponse asyncResponse) {
+        AsyncUtils.submit(asyncResponse, () -> doImportTeachers(input, batchSize));
+    }
+
+    private Response doGetTeacher(RequestBody body) {
         try {
-            Map<String, Object> map = RequestUtils.getMap(jsonString);
+            Map<String, Object> map = body.getMap();
 
-            if (map != null && map.containsKey(AuthInstance.AUTH_TOKEN_KEY)) {
-                String authToken = (String) map.get(AuthInstance.AUTH_TOKEN_KEY);
+            if (!FieldUtils.isValid(map)) {
+                return ResponseUtils.createResponse(ResponseUtils.BAD_REQUEST);
+            }
+
+            Set<String> fields = FieldUtils.getFields(map);
+
+            EntityTag tag = VersionUtils.tag(body, VersionUtils.Collection.TEACHERS, VersionUtils.Collection.AUTH_INSTANCES);
+
+            if (CBORUtils.acceptsCBOR(accept)) {
+                tag = VersionUtils.variant(tag, RequestUtils.CBOR_VARIANT);
+            }
 
-                AuthInstance authInstance = SQLControl.AuthInstances.select(authToken);
+            if (map != null && map.containsKey(AuthInstance.AUTH_TOKEN_KEY)) {
+                AuthInstance authInstance = AuthUtils.getAuthInstance(map);
 
                 if (authInstance != null) {
                     Teacher teacher = authInstance.getTeacher();
 
                     if (teacher != null) {
-                        return ResponseUtils.createResponse(ResponseUtils.OK, JSONUtils.mapToJSON(teacher.toMap()));
+                        if (VersionUtils.matches(ifNoneMatch, tag)) {
+                            return ResponseUtils.createNotModifiedResponse(tag, ResponseUtils.VARY_NEGOTIATED);
+                        }
+
+                        return createEntityResponse(FieldUtils.project(teacher.toMap(), fields), tag);
                     }
                 }
             }
 
-            if (!AuthManager.authenticate(jsonString, 0)) {
+            if (!AuthUtils.authenticate(body, 0)) {
                 return ResponseUtils.createResponse(ResponseUtils.FORBIDDEN);
             }
 
+            if (!CBORUtils.acceptsCBOR(accept) && (map == null || !map.containsKey(Teacher.ID_KEY)) && SnapshotCache.covers(map)) {
+                tag = SnapshotCache.variant(tag, acceptEncoding);
+            }
+
+            if (VersionUtils.matches(ifNoneMatch, tag)) {
+                return ResponseUtils.createNotModifiedResponse(tag, ResponseUtils.VARY_NEGOTIATED);
+            }
+
             if (map == null) {
-                return doGetTeachers();
+                return doGetTeachers(null, tag);
             }
 
             if (!map.containsKey(Teacher.ID_KEY)) {
-                return doGetTeachers();
+                return doGetTeachers(map, tag);
             }
 
             String id = (String) map.get(Teacher.ID_KEY);
 
-            Teacher teacher = SQLControl.Teachers.select(id);
+            Teacher teacher = EntityCache.TEACHERS.get(id);
 
             if (teacher == null) {
                 return ResponseUtils.createResponse(ResponseUtils.NOT_FOUND);
             }
 
-            return ResponseUtils.createResponse(ResponseUtils.OK, JSONUtils.mapToJSON(teacher.toMap()));
+            return createEntityResponse(FieldUtils.project(teacher.toMap(), fields), tag);
         } catch (SQLException | InvalidDataException ex) {
             Logger.getLogger(TeachersResource.class.getName()).log(Level.SEVERE, null, ex);
         }
@@ -117,17 +247,26 @@ public class TeachersResource {
         return ResponseUtils.createResponse(ResponseUtils.INTERNAL_SERVER_ERROR);
     }
 
-    private Response doGetTeachers() {
+    private Response doGetTeachers(Map<String, Object> map, EntityTag tag) {
         try {
-            List<Teacher> teachers = SQLControl.Teachers.select();
+            if (!PageUtils.isValid(map)) {
+                return ResponseUtils.createResponse(ResponseUtils.BAD_REQUEST);
+            }
+
+            boolean cbor = CBORUtils.acceptsCBOR(accept);
 
-            Map<String, Object> teachersMap = new HashMap<>();
+            if (!cbor && SnapshotCache.covers(map)) {
+                return SNAPSHOT.get().toResponse(acceptEncoding, tag);
+            }
+
+            Page<Teacher> page = PageUtils.load(InstrumentedSQLControl.Teachers::select, Teacher::getId, map);
 
-            for (Teacher teacher : teachers) {
-                teachersMap.put(teacher.getId(), teacher.toMap());
+            if (cbor) {
+                return ResponseUtils.createResponse(ResponseUtils.OK, CBOREntity.of(page, Teacher::getId, FieldUtils.project(Teacher::toMap, FieldUtils.getFields(map))), tag,
+                        MediaType.valueOf(RequestUtils.CBOR));
             }
 
-            return ResponseUtils.createResponse(ResponseUtils.OK, JSONUtils.mapToJSON(teachersMap));
+            return ResponseUtils.createResponse(ResponseUtils.OK, JSONStreamUtils.stream(page, Teacher::getId, FieldUtils.project(Teacher::toMap, FieldUtils.getFields(map))), tag, (MediaType) null);
         } catch (SQLException | InvalidDataException ex) {
             Logger.getLogger(TeachersResource.class.getName()).log(Level.SEVERE, null, ex);
         }
@@ -135,24 +274,43 @@ public class TeachersResource {
         return ResponseUtils.createResponse(ResponseUtils.INTERNAL_SERVER_ERROR);
     }
 
-    private Response doPostTeacher(String jsonString) {
+    private Response createEntityResponse(Map<String, Object> map, EntityTag tag) {
+        if (CBORUtils.acceptsCBOR(accept)) {
+            return ResponseUtils.createResponse(ResponseUtils.OK, CBOREntity.of(map), tag, MediaType.valueOf(RequestUtils.CBOR));
+        }
+
+        return ResponseUtils.createResponse(ResponseUtils.OK, JSONUtils.mapToJSON(map), tag, (MediaType) null);
+    }
+
+    private Response doPostTeacher(RequestBody body) {
         try {
-            if (!AuthManager.authenticate(jsonString, 1)) {
+            if (!AuthUtils.authenticate(body, 1)) {
                 return ResponseUtils.createResponse(ResponseUtils.FORBIDDEN);
             }
 
-            Teacher teacher = (Teacher) MappableFactory.build(MappableFactory.MappableType.TEACHER, JSONUtils.jsonToMap(jsonString));
+            Teacher teacher = (Teacher) MappableFactory.build(MappableFactory.MappableType.TEACHER, body.getMap());
+
+            try {
+                Lock lock = WriteLocks.get(VersionUtils.Collection.TEACHERS, teacher.getId());
+
+                lock.lock();
+
+                try {
+                    TeacherPersistence.insert(teacher);
 
-            SQLControl.Teachers.insert(teacher);
+                    ChangeLog.upsert(VersionUtils.Collection.TEACHERS, teacher.getId(), teacher.toMap());
+                } finally {
+                    lock.unlock();
+                }
+            } finally {
+                VersionUtils.bump(VersionUtils.Collection.TEACHERS);
 
-            List<ScheduleMap> scheduleMaps = teacher.getScheduleMaps();
+                EntityCache.TEACHERS.invalidate(teacher.getId());
 
-            for (ScheduleMap scheduleMap : scheduleMaps) {
-                SQLControl.ScheduleMaps.insert(scheduleMap, teacher);
-                SQLControl.HalfHours.insertFromScheduleMap(scheduleMap);
+                AuthCache.clear();
             }
 
-            return ResponseUtils.createResponse(ResponseUtils.OK);
+            return createConflictsResponse(TeacherPersistence.index(teacher));
         } catch (SQLException | InvalidDataException ex) {
             Logger.getLogger(TeachersResource.class.getName()).log(Level.SEVERE, null, ex);
         }
@@ -160,13 +318,13 @@ public class TeachersResource {
         return ResponseUtils.createResponse(ResponseUtils.INTERNAL_SERVER_ERROR);
     }
 
-    private Response doDeleteTeacher(String jsonString) {
+    private Response doDeleteTeacher(RequestBody body) {
         try {
-            if (!AuthManager.authenticate(jsonString, 1)) {
+            if (!AuthUtils.authenticate(body, 1)) {
                 return ResponseUtils.createResponse(ResponseUtils.FORBIDDEN);
             }
 
-            Map<String, Object> map = RequestUtils.getMap(jsonString);
+            Map<String, Object> map = body.getMap();
 
             if (map == null) {
                 return ResponseUtils.createResponse(ResponseUtils.BAD_REQUEST);
@@ -178,14 +336,269 @@ public class TeachersResource {
 
             String id = (String) map.get(Teacher.ID_KEY);
 
-            SQLControl.Teachers.delete(id);
+            try {
+                Lock lock = WriteLocks.get(VersionUtils.Collection.TEACHERS, id);
+
+                lock.lock();
+
+                try {
+                    InstrumentedSQLControl.Teachers.delete(id);
+
+                    ChangeLog.delete(VersionUtils.Collection.TEACHERS, id);
+                } finally {
+                    lock.unlock();
+                }
+            } finally {
+                VersionUtils.bump(VersionUtils.Collection.TEACHERS);
+
+                EntityCache.TEACHERS.invalidate(id);
+
+                AuthCache.clear();
+            }
+
+            AvailabilityIndex.remove(id);
+
+            ConflictDetector.remove(id);
+
+            AuthLevelIndex.removeTeacher(id);
 
             return ResponseUtils.createResponse(ResponseUtils.OK);
-        } catch (SQLException ex) {
+        } catch (SQLException | InvalidDataException ex) {
+            Logger.getLogger(TeachersResource.class.getName()).log(Level.SEVERE, null, ex);
+        }
+
+        return ResponseUtils.createResponse(ResponseUtils.INTERNAL_SERVER_ERROR);
+    }
+
+    private Response doGetFreeTeachers(RequestBody body) {
+        try {
+            if (!AuthUtils.authenticate(body, 0)) {
+                return ResponseUtils.createResponse(ResponseUtils.FORBIDDEN);
+            }
+
+            Map<String, Object> map = body.getMap();
+
+            if (map == null || !(map.get(AvailabilityIndex.DAY_KEY) instanceof Number)) {
+                return ResponseUtils.createResponse(ResponseUtils.BAD_REQUEST);
+            }
+
+            int day = ((Number) map.get(AvailabilityIndex.DAY_KEY)).intValue();
+            int from = getHalfHour(map.get(FROM_KEY), false);
+            int to = getHalfHour(map.get(TO_KEY), true);
+
+            if (!AvailabilityIndex.isValidRange(day, from, to)) {
+                return ResponseUtils.createResponse(ResponseUtils.BAD_REQUEST);
+            }
+
+            boolean busy = Boolean.TRUE.equals(map.get(BUSY_KEY));
+
+            String cycle = AvailabilityIndex.getCycle(map);
+
+            Map<String, Object> result = new HashMap<>();
+
+            result.put(TEACHERS_KEY, busy ? AvailabilityIndex.getBusy(cycle, day, from, to) : AvailabilityIndex.getFree(cycle, day, from, to));
+
+            return ResponseUtils.createResponse(ResponseUtils.OK, JSONUtils.mapToJSON(result));
+        } catch (SQLException | InvalidDataException ex) {
+            Logger.getLogger(TeachersResource.class.getName()).log(Level.SEVERE, null, ex);
+        }
+
+        return ResponseUtils.createResponse(ResponseUtils.INTERNAL_SERVER_ERROR);
+    }
+
+    private Response doGetConflicts(RequestBody body) {
+        try {
+            if (!AuthUtils.authenticate(body, 1)) {
+                return ResponseUtils.createResponse(ResponseUtils.FORBIDDEN);
+            }
+
+            Map<String, Object> map = body.getMap();
+
+            if (map != null && map.get(Teacher.ID_KEY) instanceof String) {
+                return createConflictsResponse(ConflictDetector.get((String) map.get(Teacher.ID_KEY)));
+            }
+
+            return createConflictsResponse(ConflictDetector.getAll());
+        } catch (SQLException | InvalidDataException ex) {
             Logger.getLogger(TeachersResource.class.getName()).log(Level.SEVERE, null, ex);
         }
 
         return ResponseUtils.createResponse(ResponseUtils.INTERNAL_SERVER_ERROR);
     }
 
+    private static Response createConflictsResponse(List<Map<String, Object>> conflicts) {
+        Map<String, Object> result = new HashMap<>();
+
+        result.put(ConflictDetector.CONFLICTS_KEY, conflicts);
+
+        return ResponseUtils.createResponse(ResponseUtils.OK, JSONUtils.mapToJSON(result));
+    }
+
+    private static int getHalfHour(Object value, boolean roundUp) {
+        if (value instanceof Number) {
+            return ((Number) value).intValue();
+        }
+
+        if (!(value instanceof String)) {
+            return -1;
+        }
+
+        String text = ((String) value).trim();
+
+        if (!text.matches("\\d{1,2}(:[0-5]\\d)?")) {
+            return -1;
+        }
+
+        String[] parts = text.split(":");
+
+        int minutes = Integer.parseInt(parts[0]) * 60 + (parts.length > 1 ? Integer.parseInt(parts[1]) : 0);
+
+        return roundUp ? (minutes + 29) / 30 : minutes / 30;
+    }
+
+    private Response doImportTeachers(InputStream input, int batchSize) {
+        BufferedReader reader = new BufferedReader(new InputStreamReader(input, StandardCharsets.UTF_8));
+
+        try {
+            RequestBody header = RequestBody.of(reader.readLine());
+
+            if (!AuthUtils.authenticate(header, 1)) {
+                return ResponseUtils.createResponse(ResponseUtils.FORBIDDEN);
+            }
+
+            int size = Math.max(1, Math.min(batchSize, MAX_BATCH_SIZE));
+
+            return ResponseUtils.createResponse(ResponseUtils.OK, (StreamingOutput) output -> importTeachers(reader, output, size));
+        } catch (IOException | SQLException | InvalidDataException ex) {
+            Logger.getLogger(TeachersResource.class.getName()).log(Level.SEVERE, null, ex);
+        }
+
+        return ResponseUtils.createResponse(ResponseUtils.INTERNAL_SERVER_ERROR);
+    }
+
+    private static void importTeachers(BufferedReader reader, OutputStream output, int batchSize) throws IOException {
+        Writer writer = new BufferedWriter(new OutputStreamWriter(output, StandardCharsets.UTF_8));
+
+        List<Integer> lineNumbers = new ArrayList<>(batchSize);
+        List<Teacher> teachers = new ArrayList<>(batchSize);
+
+        String line;
+        int lineNumber = 1;
+
+        try (reader) {
+            while ((line = reader.readLine()) != null) {
+                lineNumber++;
+
+                if (line.isBlank()) {
+                    continue;
+                }
+
+                lineNumbers.add(lineNumber);
+                teachers.add(buildTeacher(RequestBody.of(line)));
+
+                if (teachers.size() >= batchSize) {
+                    importBatch(writer, lineNumbers, teachers);
+                }
+            }
+
+            if (!teachers.isEmpty()) {
+                importBatch(writer, lineNumbers, teachers);
+            }
+        }
+
+        writer.flush();
+    }
+
+    private static Teacher buildTeacher(RequestBody body) {
+        if (!body.isValid()) {
+            return null;
+        }
+
+        try {
+            return build(body.getMap());
+        } catch (InvalidDataException | RuntimeException ex) {
+            return null;
+        }
+    }
+
+    private static Teacher build(Map<String, Object> map) throws InvalidDataException {
+        return (Teacher) MappableFactory.build(MappableFactory.MappableType.TEACHER, map);
+    }
+
+    private static void importBatch(Writer writer, List<Integer> lineNumbers, List<Teacher> teachers) throws IOException {
+        int[] statuses = new int[teachers.size()];
+
+        Set<String> ids = new HashSet<>();
+
+        for (Teacher teacher : teachers) {
+            if (teacher != null) {
+                ids.add(teacher.getId());
+            }
+        }
+
+        Map<String, Map<String, Object>> changes = new LinkedHashMap<>();
+
+        List<Lock> locks = WriteLocks.getAll(VersionUtils.Collection.TEACHERS, ids);
+
+        try {
+            locks.forEach(Lock::lock);
+
+            try {
+                for (int i = 0; i < teachers.size(); i++) {
+                    statuses[i] = importTeacher(teachers.get(i), changes);
+                }
+
+                ChangeLog.upsertAll(VersionUtils.Collection.TEACHERS, changes);
+            } finally {
+                for (int i = locks.size() - 1; i >= 0; i--) {
+                    locks.get(i).unlock();
+                }
+            }
+        } finally {
+            if (!ids.isEmpty()) {
+                VersionUtils.bump(VersionUtils.Collection.TEACHERS);
+
+                ids.forEach(EntityCache.TEACHERS::invalidate);
+
+                AuthCache.clear();
+            }
+        }
+
+        for (int i = 0; i < teachers.size(); i++) {
+            if (statuses[i] == ResponseUtils.OK) {
+                TeacherPersistence.index(teachers.get(i));
+            }
+
+            appendImportResult(writer, lineNumbers.get(i), statuses[i]);
+        }
+
+        writer.flush();
+
+        lineNumbers.clear();
+        teachers.clear();
+    }
+
+    private static int importTeacher(Teacher teacher, Map<String, Map<String, Object>> changes) {
+        if (teacher == null) {
+            return ResponseUtils.BAD_REQUEST;
+        }
+
+        try {
+            TeacherPersistence.insert(teacher);
+
+            changes.remove(teacher.getId());
+            changes.put(teacher.getId(), teacher.toMap());
+
+            return ResponseUtils.OK;
+        } catch (SQLException | InvalidDataException ex) {
+            Logger.getLogger(TeachersResource.class.getName()).log(Level.SEVERE, null, ex);
+        }
+
+        return ResponseUtils.INTERNAL_SERVER_ERROR;
+    }
+
+    private static void appendImportResult(Writer writer, int lineNumber, int status) throws IOException {
+        writer.write("{\"line\":" + lineNumber + ",\"status\":" + status + "}\n");
+    }
+
 }
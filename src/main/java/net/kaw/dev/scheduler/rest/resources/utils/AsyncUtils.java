@@ -0,0 +1,114 @@
+/*
+ * MIT License
+ * 
+ * Copyright (c) 2023 Kawtious
+ * 
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and
+ * associated documentation files (the "Software"), to deal in the Software without restriction,
+ * including without limitation the rights to use, copy, modify, merge, publish, distribute,
+ * sublicense, and/or sell copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ * 
+ * The above copyright notice and this permission notice shall be included in all copies or
+ * substantial portions of the Software.
+ * 
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT
+ * NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM,
+ * DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+package net.kaw.dev.scheduler.rest.resources.utils;
+
+import jakarta.ws.rs.container.AsyncResponse;
+import jakarta.ws.rs.core.Response;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+import net.kaw.dev.scheduler.rest.persistence.SQLMetrics;
+
+/**
+ * Runs resource work off the container request thread. Virtual threads are
+ * used when the runtime provides them, otherwise a fixed pool. Admission is
+ * bounded and overflow is answered right away with RATE_LIMITED.
+ */
+public class AsyncUtils {
+
+    public static final int MAX_IN_FLIGHT = 1024;
+
+    public static final int POOL_SIZE = 64;
+
+    public static final long SHUTDOWN_TIMEOUT = 10;
+
+    private static final Semaphore PERMITS = new Semaphore(MAX_IN_FLIGHT);
+
+    private static final ExecutorService EXECUTOR = createExecutor();
+
+    public static void submit(AsyncResponse asyncResponse, Supplier<Response> task) {
+        if (!PERMITS.tryAcquire()) {
+            asyncResponse.resume(ResponseUtils.createResponse(ResponseUtils.RATE_LIMITED));
+            return;
+        }
+
+        Metrics.Route route = Metrics.takeCurrentRoute();
+
+        try {
+            EXECUTOR.execute(() -> {
+                SQLMetrics.beginRequest(route);
+
+                try {
+                    asyncResponse.resume(task.get());
+                } catch (Throwable ex) {
+                    Logger.getLogger(AsyncUtils.class.getName()).log(Level.SEVERE, null, ex);
+                    asyncResponse.resume(ResponseUtils.createResponse(ResponseUtils.INTERNAL_SERVER_ERROR));
+                } finally {
+                    SQLMetrics.endRequest();
+                    PERMITS.release();
+                }
+            });
+        } catch (RejectedExecutionException ex) {
+            PERMITS.release();
+            asyncResponse.resume(ResponseUtils.createResponse(ResponseUtils.RATE_LIMITED));
+        }
+    }
+
+    public static void shutdown() {
+        EXECUTOR.shutdown();
+
+        try {
+            if (!EXECUTOR.awaitTermination(SHUTDOWN_TIMEOUT, TimeUnit.SECONDS)) {
+                EXECUTOR.shutdownNow();
+            }
+        } catch (InterruptedException ex) {
+            EXECUTOR.shutdownNow();
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    public static int getInFlight() {
+        return MAX_IN_FLIGHT - PERMITS.availablePermits();
+    }
+
+    private static ExecutorService createExecutor() {
+        try {
+            return (ExecutorService) Executors.class.getMethod("newVirtualThreadPerTaskExecutor").invoke(null);
+        } catch (ReflectiveOperationException ex) {
+            AtomicInteger count = new AtomicInteger();
+
+            return new ThreadPoolExecutor(POOL_SIZE, POOL_SIZE, 60, TimeUnit.SECONDS, new ArrayBlockingQueue<>(MAX_IN_FLIGHT), runnable -> {
+                Thread thread = new Thread(runnable, "scheduler-rest-" + count.incrementAndGet());
+                thread.setDaemon(true);
+                return thread;
+            });
+        }
+    }
+
+}
@@ -0,0 +1,82 @@
+/*
+ * MIT License
+ * 
+ * Copyright (c) 2023 Kawtious
+ * 
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and
+ * associated documentation files (the "Software"), to deal in the Software without restriction,
+ * including without limitation the rights to use, copy, modify, merge, publish, distribute,
+ * sublicense, and/or sell copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ * 
+ * The above copyright notice and this permission notice shall be included in all copies or
+ * substantial portions of the Software.
+ * 
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT
+ * NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM,
+ * DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+package net.kaw.dev.scheduler.rest.resources.utils;
+
+import java.sql.SQLException;
+import java.util.HashMap;
+import java.util.Map;
+import net.kaw.dev.scheduler.exceptions.InvalidDataException;
+import net.kaw.dev.scheduler.persistence.sql.auth.data.AuthInstance;
+import net.kaw.dev.scheduler.rest.persistence.InstrumentedSQLControl;
+
+/**
+ * Token to AuthInstance cache, an EntityCache keyed by auth token. A lookup
+ * that races with an invalidation is returned to its caller but not cached,
+ * so a revoked token cannot be put back.
+ */
+public class AuthCache {
+
+    private static final EntityCache<AuthInstance> CACHE = new EntityCache<>("auth", InstrumentedSQLControl.AuthInstances::select);
+
+    public static AuthInstance get(String authToken) throws SQLException, InvalidDataException {
+        return CACHE.get(authToken);
+    }
+
+    public static AuthInstance peek(String authToken) {
+        return CACHE.peek(authToken);
+    }
+
+    public static void invalidate(String authToken) {
+        CACHE.invalidate(authToken);
+    }
+
+    public static void clear() {
+        CACHE.clear();
+    }
+
+    public static long getHits() {
+        return CACHE.getHits();
+    }
+
+    public static long getMisses() {
+        return CACHE.getMisses();
+    }
+
+    public static long getEvictions() {
+        return CACHE.getEvictions();
+    }
+
+    public static int getSize() {
+        return CACHE.getSize();
+    }
+
+    public static Map<String, Object> toMap() {
+        Map<String, Object> map = new HashMap<>();
+
+        map.put("hits", getHits());
+        map.put("misses", getMisses());
+        map.put("evictions", getEvictions());
+        map.put("size", getSize());
+
+        return map;
+    }
+
+}
@@ -0,0 +1,167 @@
+/*
+ * MIT License
+ * 
+ * Copyright (c) 2023 Kawtious
+ * 
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and
+ * associated documentation files (the "Software"), to deal in the Software without restriction,
+ * including without limitation the rights to use, copy, modify, merge, publish, distribute,
+ * sublicense, and/or sell copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ * 
+ * The above copyright notice and this permission notice shall be included in all copies or
+ * substantial portions of the Software.
+ * 
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT
+ * NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM,
+ * DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+package net.kaw.dev.scheduler.rest.resources.utils;
+
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantLock;
+import net.kaw.dev.scheduler.exceptions.InvalidDataException;
+import net.kaw.dev.scheduler.persistence.sql.auth.data.AuthInstance;
+import net.kaw.dev.scheduler.rest.persistence.InstrumentedSQLControl;
+
+/**
+ * Auth instances grouped by auth level and ordered by token, so a level
+ * listing costs a binary search plus the size of the page instead of a scan
+ * of every auth instance. Rebuilt when the AUTH_INSTANCES version changes.
+ * Deleting a teacher drops its auth instances from the current snapshot
+ * instead of forcing a rebuild, and bulk teacher changes invalidate it.
+ */
+public class AuthLevelIndex {
+
+    private static final Lock LOCK = new ReentrantLock();
+
+    private static volatile Snapshot snapshot;
+
+    public static Page<AuthInstance> page(int authLevel, Map<String, Object> map) throws SQLException, InvalidDataException {
+        boolean paged = map != null && (map.containsKey(PageUtils.LIMIT_KEY) || map.containsKey(PageUtils.CURSOR_KEY));
+
+        String cursor = paged ? (String) map.get(PageUtils.CURSOR_KEY) : null;
+
+        int limit = paged ? PageUtils.getLimit(map) : Integer.MAX_VALUE;
+
+        List<AuthInstance> authInstances = getSnapshot().levels.getOrDefault(authLevel, Collections.emptyList());
+
+        return PageUtils.pageSorted(authInstances, AuthInstance::getAuthToken, cursor, limit, paged);
+    }
+
+    public static void removeTeacher(String teacherId) {
+        if (teacherId == null) {
+            return;
+        }
+
+        LOCK.lock();
+
+        try {
+            Snapshot s = snapshot;
+
+            if (s != null) {
+                snapshot = s.without(teacherId);
+            }
+        } finally {
+            LOCK.unlock();
+        }
+    }
+
+    public static void invalidate() {
+        LOCK.lock();
+
+        try {
+            snapshot = null;
+        } finally {
+            LOCK.unlock();
+        }
+    }
+
+    private static Snapshot getSnapshot() throws SQLException, InvalidDataException {
+        Snapshot s = snapshot;
+
+        if (s != null && s.isCurrent(VersionUtils.get(VersionUtils.Collection.AUTH_INSTANCES))) {
+            return s;
+        }
+
+        LOCK.lock();
+
+        try {
+            long version = VersionUtils.get(VersionUtils.Collection.AUTH_INSTANCES);
+
+            s = snapshot;
+
+            if (s == null || !s.isCurrent(version)) {
+                s = new Snapshot(version, InstrumentedSQLControl.AuthInstances.select());
+                snapshot = s;
+            }
+
+            return s;
+        } finally {
+            LOCK.unlock();
+        }
+    }
+
+    private static class Snapshot {
+
+        private final long version;
+
+        private final Map<Integer, List<AuthInstance>> levels = new HashMap<>();
+
+        private Snapshot(long version, List<AuthInstance> authInstances) {
+            this.version = version;
+
+            for (AuthInstance authInstance : authInstances) {
+                if (authInstance.getAuthLevel() != null && authInstance.getAuthToken() != null) {
+                    levels.computeIfAbsent(authInstance.getAuthLevel(), k -> new ArrayList<>()).add(authInstance);
+                }
+            }
+
+            for (List<AuthInstance> level : levels.values()) {
+                level.sort(Comparator.comparing(AuthInstance::getAuthToken));
+            }
+        }
+
+        private Snapshot(long version, Map<Integer, List<AuthInstance>> levels) {
+            this.version = version;
+            this.levels.putAll(levels);
+        }
+
+        private Snapshot without(String teacherId) {
+            Map<Integer, List<AuthInstance>> remaining = new HashMap<>();
+
+            boolean removed = false;
+
+            for (Map.Entry<Integer, List<AuthInstance>> entry : levels.entrySet()) {
+                List<AuthInstance> level = new ArrayList<>(entry.getValue().size());
+
+                for (AuthInstance authInstance : entry.getValue()) {
+                    if (authInstance.getTeacher() != null && teacherId.equals(authInstance.getTeacher().getId())) {
+                        removed = true;
+                    } else {
+                        level.add(authInstance);
+                    }
+                }
+
+                remaining.put(entry.getKey(), level);
+            }
+
+            return removed ? new Snapshot(version, remaining) : this;
+        }
+
+        private boolean isCurrent(long version) {
+            return this.version == version;
+        }
+
+    }
+
+}
@@ -0,0 +1,67 @@
+/*
+ * MIT License
+ * 
+ * Copyright (c) 2023 Kawtious
+ * 
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and
+ * associated documentation files (the "Software"), to deal in the Software without restriction,
+ * including without limitation the rights to use, copy, modify, merge, publish, distribute,
+ * sublicense, and/or sell copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ * 
+ * The above copyright notice and this permission notice shall be included in all copies or
+ * substantial portions of the Software.
+ * 
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT
+ * NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM,
+ * DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+package net.kaw.dev.scheduler.rest.resources.utils;
+
+import java.sql.SQLException;
+import java.util.Map;
+import net.kaw.dev.scheduler.exceptions.InvalidDataException;
+import net.kaw.dev.scheduler.persistence.sql.auth.data.AuthInstance;
+
+public class AuthUtils {
+
+    public static final String BEARER_SCHEME = "Bearer";
+
+    public static boolean authenticate(RequestBody body, int level) throws SQLException, InvalidDataException {
+        AuthInstance authInstance = getAuthInstance(body.getMap());
+
+        if (authInstance == null || authInstance.getAuthLevel() == null) {
+            return false;
+        }
+
+        return authInstance.getAuthLevel() >= level;
+    }
+
+    public static AuthInstance getAuthInstance(Map<String, Object> map) throws SQLException, InvalidDataException {
+        if (map == null || !(map.get(AuthInstance.AUTH_TOKEN_KEY) instanceof String)) {
+            return null;
+        }
+
+        return AuthCache.get((String) map.get(AuthInstance.AUTH_TOKEN_KEY));
+    }
+
+    public static String getBearerToken(String authorization) {
+        if (authorization == null) {
+            return null;
+        }
+
+        String value = authorization.trim();
+
+        if (value.length() <= BEARER_SCHEME.length() || !value.regionMatches(true, 0, BEARER_SCHEME, 0, BEARER_SCHEME.length())
+                || !Character.isWhitespace(value.charAt(BEARER_SCHEME.length()))) {
+            return null;
+        }
+
+        String token = value.substring(BEARER_SCHEME.length()).trim();
+
+        return token.isEmpty() ? null : token;
+    }
+
+}
@@ -0,0 +1,440 @@
+/*
+ * MIT License
+ * 
+ * Copyright (c) 2023 Kawtious
+ * 
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and
+ * associated documentation files (the "Software"), to deal in the Software without restriction,
+ * including without limitation the rights to use, copy, modify, merge, publish, distribute,
+ * sublicense, and/or sell copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ * 
+ * The above copyright notice and this permission notice shall be included in all copies or
+ * substantial portions of the Software.
+ * 
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT
+ * NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM,
+ * DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+package net.kaw.dev.scheduler.rest.resources.utils;
+
+import java.sql.SQLException;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+import net.kaw.dev.scheduler.data.ScheduleMap;
+import net.kaw.dev.scheduler.data.Teacher;
+import net.kaw.dev.scheduler.exceptions.InvalidDataException;
+import net.kaw.dev.scheduler.rest.persistence.InstrumentedSQLControl;
+
+/**
+ * In-memory availability of every teacher over the weekly grid of half-hour
+ * slots. The index is slot-major: each slot holds a bitset over columns, one
+ * column per teacher and cycle, so a free or busy query over a range of slots
+ * is a word-level AND or OR of a few bitsets no matter how many teachers
+ * there are.
+ *
+ * A teacher is available in a slot of a cycle when any of its schedule maps
+ * for that cycle, keyed by CYCLE_KEY, marks it available. A query without a
+ * cycle matches a teacher when any one of its cycles matches on its own.
+ * Schedule maps are read from their toMap() form, either as a list
+ * under HALF_HOURS_KEY of {DAY_KEY, HALF_HOUR_KEY, AVAILABLE_KEY} entries or
+ * as a day by half-hour grid of booleans under the same key. ScheduleMap does
+ * not publish key constants for that form, so a map that does not match it
+ * raises an IllegalStateException instead of reading as an empty schedule.
+ *
+ * Every teacher has an entry, even without schedule maps, so the index also
+ * answers whether a teacher id exists without a query.
+ */
+public class AvailabilityIndex {
+
+    public static final int DAYS = 7;
+
+    public static final int HALF_HOURS = 48;
+
+    public static final int SLOTS = DAYS * HALF_HOURS;
+
+    public static final int WORDS = (SLOTS + Long.SIZE - 1) / Long.SIZE;
+
+    public static final String DAY_KEY = "day";
+
+    public static final String HALF_HOUR_KEY = "half_hour";
+
+    public static final String HALF_HOURS_KEY = "half_hours";
+
+    public static final String AVAILABLE_KEY = "available";
+
+    public static final String CYCLE_KEY = "cycle_id";
+
+    private static final int MAX_BUILD_ATTEMPTS = 3;
+
+    private static final ReadWriteLock LOCK = new ReentrantReadWriteLock();
+
+    private static final Lock BUILD_LOCK = new ReentrantLock();
+
+    private static final Map<String, Map<String, Integer>> COLUMNS = new HashMap<>();
+
+    private static final Deque<Integer> FREE_COLUMNS = new ArrayDeque<>();
+
+    private static String[] ids = new String[0];
+
+    private static String[] cycles = new String[0];
+
+    private static long[][] slots = new long[SLOTS][0];
+
+    private static long[] present = new long[0];
+
+    private static int size;
+
+    private static boolean built;
+
+    private static long modifications;
+
+    public static List<String> getFree(String cycle, int day, int from, int to) throws SQLException, InvalidDataException {
+        return query(cycle, day, from, to, false);
+    }
+
+    public static List<String> getBusy(String cycle, int day, int from, int to) throws SQLException, InvalidDataException {
+        return query(cycle, day, from, to, true);
+    }
+
+    public static boolean contains(String id) throws SQLException, InvalidDataException {
+        ensureBuilt();
+
+        LOCK.readLock().lock();
+
+        try {
+            return COLUMNS.containsKey(id);
+        } finally {
+            LOCK.readLock().unlock();
+        }
+    }
+
+    public static void put(Teacher teacher) {
+        Map<String, long[]> bits;
+
+        try {
+            bits = toBitsets(teacher);
+        } catch (IllegalStateException | InvalidDataException ex) {
+            Logger.getLogger(AvailabilityIndex.class.getName()).log(Level.SEVERE, null, ex);
+            invalidate();
+            return;
+        }
+
+        LOCK.writeLock().lock();
+
+        try {
+            modifications++;
+
+            if (built) {
+                set(teacher.getId(), bits);
+            }
+        } finally {
+            LOCK.writeLock().unlock();
+        }
+    }
+
+    public static void remove(String id) {
+        LOCK.writeLock().lock();
+
+        try {
+            modifications++;
+
+            if (built) {
+                clear(id);
+            }
+        } finally {
+            LOCK.writeLock().unlock();
+        }
+    }
+
+    public static void invalidate() {
+        LOCK.writeLock().lock();
+
+        try {
+            modifications++;
+            built = false;
+        } finally {
+            LOCK.writeLock().unlock();
+        }
+    }
+
+    public static Map<String, long[]> toBitsets(Teacher teacher) throws InvalidDataException {
+        Map<String, long[]> bitsets = new HashMap<>();
+
+        if (teacher.getScheduleMaps() != null) {
+            for (ScheduleMap scheduleMap : teacher.getScheduleMaps()) {
+                Map<String, Object> map = scheduleMap.toMap();
+
+                read(map, bitsets.computeIfAbsent(getCycle(map), k -> new long[WORDS]));
+            }
+        }
+
+        return bitsets;
+    }
+
+    public static long[] toBitset(Map<String, Object> scheduleMap) {
+        long[] bits = new long[WORDS];
+
+        read(scheduleMap, bits);
+
+        return bits;
+    }
+
+    public static String getCycle(Map<String, ?> map) {
+        Object cycle = map == null ? null : map.get(CYCLE_KEY);
+
+        return cycle == null ? null : cycle.toString();
+    }
+
+    public static boolean isValidRange(int day, int from, int to) {
+        return day >= 0 && day < DAYS && from >= 0 && from < to && to <= HALF_HOURS;
+    }
+
+    private static List<String> query(String cycle, int day, int from, int to, boolean busy) throws SQLException, InvalidDataException {
+        if (!isValidRange(day, from, to)) {
+            return new ArrayList<>();
+        }
+
+        ensureBuilt();
+
+        LOCK.readLock().lock();
+
+        try {
+            long[] result = busy ? new long[present.length] : present.clone();
+
+            for (int slot = day * HALF_HOURS + from; slot < day * HALF_HOURS + to; slot++) {
+                long[] teachers = slots[slot];
+
+                for (int word = 0; word < result.length; word++) {
+                    if (busy) {
+                        result[word] |= present[word] & ~teachers[word];
+                    } else {
+                        result[word] &= teachers[word];
+                    }
+                }
+            }
+
+            Set<String> matches = new LinkedHashSet<>();
+
+            for (int word = 0; word < result.length; word++) {
+                long bits = result[word];
+
+                while (bits != 0) {
+                    int column = word * Long.SIZE + Long.numberOfTrailingZeros(bits);
+
+                    if (cycle == null || cycle.equals(cycles[column])) {
+                        matches.add(ids[column]);
+                    }
+
+                    bits &= bits - 1;
+                }
+            }
+
+            return new ArrayList<>(matches);
+        } finally {
+            LOCK.readLock().unlock();
+        }
+    }
+
+    private static void ensureBuilt() throws SQLException, InvalidDataException {
+        LOCK.readLock().lock();
+
+        try {
+            if (built) {
+                return;
+            }
+        } finally {
+            LOCK.readLock().unlock();
+        }
+
+        BUILD_LOCK.lock();
+
+        try {
+            for (int attempt = 1; attempt <= MAX_BUILD_ATTEMPTS; attempt++) {
+                long start;
+
+                LOCK.readLock().lock();
+
+                try {
+                    if (built) {
+                        return;
+                    }
+
+                    start = modifications;
+                } finally {
+                    LOCK.readLock().unlock();
+                }
+
+                List<Teacher> teachers = InstrumentedSQLControl.Teachers.select();
+
+                Map<String, Map<String, long[]>> bitsets = new HashMap<>();
+
+                for (Teacher teacher : teachers) {
+                    bitsets.put(teacher.getId(), toBitsets(teacher));
+                }
+
+                LOCK.writeLock().lock();
+
+                try {
+                    reset();
+
+                    for (Map.Entry<String, Map<String, long[]>> entry : bitsets.entrySet()) {
+                        set(entry.getKey(), entry.getValue());
+                    }
+
+                    // A build raced by writes stays unbuilt, so the next
+                    // reader rebuilds instead of serving dropped updates
+                    built = modifications == start;
+                } finally {
+                    LOCK.writeLock().unlock();
+                }
+            }
+        } finally {
+            BUILD_LOCK.unlock();
+        }
+    }
+
+    private static void reset() {
+        COLUMNS.clear();
+        FREE_COLUMNS.clear();
+        size = 0;
+        ids = new String[0];
+        cycles = new String[0];
+        slots = new long[SLOTS][0];
+        present = new long[0];
+    }
+
+    private static void set(String id, Map<String, long[]> bitsets) {
+        clear(id);
+
+        Map<String, Integer> columns = new HashMap<>();
+
+        for (Map.Entry<String, long[]> entry : bitsets.entrySet()) {
+            int column = FREE_COLUMNS.isEmpty() ? size++ : FREE_COLUMNS.pop();
+
+            ensureCapacity(column + 1);
+
+            columns.put(entry.getKey(), column);
+            ids[column] = id;
+            cycles[column] = entry.getKey();
+
+            set(column, entry.getValue());
+        }
+
+        COLUMNS.put(id, columns);
+    }
+
+    private static void set(int column, long[] bits) {
+        int word = column / Long.SIZE;
+        long mask = 1L << column;
+
+        present[word] |= mask;
+
+        for (int slot = 0; slot < SLOTS; slot++) {
+            if ((bits[slot / Long.SIZE] & (1L << slot)) != 0) {
+                slots[slot][word] |= mask;
+            } else {
+                slots[slot][word] &= ~mask;
+            }
+        }
+    }
+
+    private static void clear(String id) {
+        Map<String, Integer> columns = COLUMNS.remove(id);
+
+        if (columns == null) {
+            return;
+        }
+
+        for (int column : columns.values()) {
+            int word = column / Long.SIZE;
+            long mask = ~(1L << column);
+
+            present[word] &= mask;
+
+            for (int slot = 0; slot < SLOTS; slot++) {
+                slots[slot][word] &= mask;
+            }
+
+            ids[column] = null;
+            cycles[column] = null;
+            FREE_COLUMNS.push(column);
+        }
+    }
+
+    private static void ensureCapacity(int columns) {
+        if (columns <= ids.length) {
+            return;
+        }
+
+        int capacity = Math.max(Long.SIZE, Integer.highestOneBit(columns - 1) << 1);
+        int words = capacity / Long.SIZE;
+
+        ids = Arrays.copyOf(ids, capacity);
+        cycles = Arrays.copyOf(cycles, capacity);
+        present = Arrays.copyOf(present, words);
+
+        for (int slot = 0; slot < SLOTS; slot++) {
+            slots[slot] = Arrays.copyOf(slots[slot], words);
+        }
+    }
+
+    private static void read(Map<String, Object> scheduleMap, long[] bits) {
+        Object halfHours = scheduleMap == null ? null : scheduleMap.get(HALF_HOURS_KEY);
+
+        if (!(halfHours instanceof List)) {
+            throw new IllegalStateException("Schedule map has no " + HALF_HOURS_KEY + " list: " + scheduleMap);
+        }
+
+        List<?> list = (List<?>) halfHours;
+
+        for (int i = 0; i < list.size(); i++) {
+            Object item = list.get(i);
+
+            if (item instanceof Map) {
+                Map<?, ?> halfHour = (Map<?, ?>) item;
+
+                if (!(halfHour.get(DAY_KEY) instanceof Number) || !(halfHour.get(HALF_HOUR_KEY) instanceof Number)) {
+                    throw new IllegalStateException("Half hour has no " + DAY_KEY + " or " + HALF_HOUR_KEY + ": " + halfHour);
+                }
+
+                if (!Boolean.FALSE.equals(halfHour.get(AVAILABLE_KEY))) {
+                    mark(bits, ((Number) halfHour.get(DAY_KEY)).intValue(), ((Number) halfHour.get(HALF_HOUR_KEY)).intValue());
+                }
+            } else if (item instanceof List) {
+                List<?> day = (List<?>) item;
+
+                for (int j = 0; j < day.size(); j++) {
+                    if (Boolean.TRUE.equals(day.get(j))) {
+                        mark(bits, i, j);
+                    }
+                }
+            } else {
+                throw new IllegalStateException("Unreadable " + HALF_HOURS_KEY + " entry: " + item);
+            }
+        }
+    }
+
+    private static void mark(long[] bits, int day, int halfHour) {
+        if (day >= 0 && day < DAYS && halfHour >= 0 && halfHour < HALF_HOURS) {
+            int slot = day * HALF_HOURS + halfHour;
+            bits[slot / Long.SIZE] |= 1L << slot;
+        }
+    }
+
+}
@@ -0,0 +1,87 @@
+/*
+ * MIT License
+ * 
+ * Copyright (c) 2023 Kawtious
+ * 
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and
+ * associated documentation files (the "Software"), to deal in the Software without restriction,
+ * including without limitation the rights to use, copy, modify, merge, publish, distribute,
+ * sublicense, and/or sell copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ * 
+ * The above copyright notice and this permission notice shall be included in all copies or
+ * substantial portions of the Software.
+ * 
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT
+ * NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM,
+ * DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+package net.kaw.dev.scheduler.rest.resources.utils;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+import net.kaw.dev.scheduler.exceptions.InvalidDataException;
+
+/**
+ * Response entity written as CBOR by CBORWriter. Listings are encoded one
+ * entity at a time, in page order and with the same shape as the JSON
+ * listings.
+ */
+public class CBOREntity {
+
+    private interface Writer {
+
+        void write(CBORUtils.Encoder encoder) throws IOException;
+
+    }
+
+    private final Writer writer;
+
+    private CBOREntity(Writer writer) {
+        this.writer = writer;
+    }
+
+    public static CBOREntity of(Object value) {
+        return new CBOREntity(encoder -> encoder.write(value));
+    }
+
+    public static <T> CBOREntity of(Page<T> page, JSONStreamUtils.KeyMapper<T> keyMapper, JSONStreamUtils.ValueMapper<T> valueMapper) {
+        return new CBOREntity(encoder -> {
+            if (page.isPaged()) {
+                encoder.writeMapHeader(2);
+                encoder.writeString(PageUtils.ITEMS_KEY);
+            }
+
+            encoder.writeMapHeader(page.getItems().size());
+
+            for (T item : page.getItems()) {
+                encoder.writeString(String.valueOf(keyMapper.getKey(item)));
+
+                try {
+                    encoder.write(valueMapper.toMap(item));
+                } catch (InvalidDataException ex) {
+                    Logger.getLogger(CBOREntity.class.getName()).log(Level.SEVERE, null, ex);
+                    throw new IOException(ex);
+                }
+            }
+
+            if (page.isPaged()) {
+                encoder.writeString(PageUtils.NEXT_KEY);
+                encoder.write(page.getNext());
+            }
+        });
+    }
+
+    public void write(OutputStream output) throws IOException {
+        CBORUtils.Encoder encoder = new CBORUtils.Encoder(output);
+
+        writer.write(encoder);
+
+        encoder.flush();
+    }
+
+}
@@ -0,0 +1,261 @@
+/*
+ * MIT License
+ * 
+ * Copyright (c) 2023 Kawtious
+ * 
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and
+ * associated documentation files (the "Software"), to deal in the Software without restriction,
+ * including without limitation the rights to use, copy, modify, merge, publish, distribute,
+ * sublicense, and/or sell copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ * 
+ * The above copyright notice and this permission notice shall be included in all copies or
+ * substantial portions of the Software.
+ * 
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT
+ * NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM,
+ * DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+package net.kaw.dev.scheduler.rest.resources.utils;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.nio.charset.StandardCharsets;
+import java.util.Collection;
+import java.util.Map;
+
+/**
+ * Minimal CBOR (RFC 8949) encoder for the same maps, lists and scalars that
+ * the JSON responses are built from. Only definite lengths are written;
+ * integers use the shortest encoding and other numbers are 64-bit floats.
+ */
+public class CBORUtils {
+
+    private static final int UNSIGNED = 0;
+
+    private static final int NEGATIVE = 1;
+
+    private static final int BYTES = 2;
+
+    private static final int TEXT = 3;
+
+    private static final int ARRAY = 4;
+
+    private static final int MAP = 5;
+
+    private static final int FALSE = 0xf4;
+
+    private static final int TRUE = 0xf5;
+
+    private static final int NULL = 0xf6;
+
+    private static final int FLOAT64 = 0xfb;
+
+    public static boolean acceptsCBOR(String accept) {
+        if (accept == null) {
+            return false;
+        }
+
+        double cbor = 0;
+        double text = 0;
+
+        for (String range : accept.split(",")) {
+            String[] parts = range.split(";");
+            String type = parts[0].trim().toLowerCase();
+            double quality = 1;
+
+            for (int i = 1; i < parts.length; i++) {
+                String param = parts[i].trim();
+
+                if (param.startsWith("q=")) {
+                    try {
+                        quality = Double.parseDouble(param.substring(2));
+                    } catch (NumberFormatException ex) {
+                        quality = 0;
+                    }
+                }
+            }
+
+            if (type.equals(RequestUtils.CBOR)) {
+                cbor = Math.max(cbor, quality);
+            } else if (type.equals("text/plain") || type.equals("text/*") || type.equals("*/*")) {
+                text = Math.max(text, quality);
+            }
+        }
+
+        return cbor > 0 && cbor >= text;
+    }
+
+    public static byte[] encode(Object value) {
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+
+        try {
+            new Encoder(output).write(value).flush();
+        } catch (IOException ex) {
+            throw new IllegalStateException(ex);
+        }
+
+        return output.toByteArray();
+    }
+
+    public static class Encoder {
+
+        private final OutputStream output;
+
+        private final byte[] buffer = new byte[8192];
+
+        private int position;
+
+        public Encoder(OutputStream output) {
+            this.output = output;
+        }
+
+        public Encoder write(Object value) throws IOException {
+            if (value == null) {
+                writeByte(NULL);
+            } else if (value instanceof String) {
+                writeString((String) value);
+            } else if (value instanceof Boolean) {
+                writeByte((Boolean) value ? TRUE : FALSE);
+            } else if (value instanceof Integer || value instanceof Long || value instanceof Short || value instanceof Byte) {
+                writeLong(((Number) value).longValue());
+            } else if (value instanceof BigInteger && ((BigInteger) value).bitLength() < Long.SIZE) {
+                writeLong(((BigInteger) value).longValue());
+            } else if (value instanceof Number && !(value instanceof BigInteger) && !(value instanceof BigDecimal)) {
+                writeDouble(((Number) value).doubleValue());
+            } else if (value instanceof Map) {
+                Map<?, ?> map = (Map<?, ?>) value;
+
+                writeMapHeader(map.size());
+
+                for (Map.Entry<?, ?> entry : map.entrySet()) {
+                    writeString(String.valueOf(entry.getKey()));
+                    write(entry.getValue());
+                }
+            } else if (value instanceof Collection) {
+                Collection<?> collection = (Collection<?>) value;
+
+                writeArrayHeader(collection.size());
+
+                for (Object item : collection) {
+                    write(item);
+                }
+            } else if (value instanceof Object[]) {
+                Object[] array = (Object[]) value;
+
+                writeArrayHeader(array.length);
+
+                for (Object item : array) {
+                    write(item);
+                }
+            } else if (value instanceof byte[]) {
+                byte[] bytes = (byte[]) value;
+
+                writeHeader(BYTES, bytes.length);
+                writeBytes(bytes, 0, bytes.length);
+            } else {
+                writeString(value.toString());
+            }
+
+            return this;
+        }
+
+        public Encoder writeMapHeader(int size) throws IOException {
+            writeHeader(MAP, size);
+            return this;
+        }
+
+        public Encoder writeArrayHeader(int size) throws IOException {
+            writeHeader(ARRAY, size);
+            return this;
+        }
+
+        public Encoder writeString(String str) throws IOException {
+            byte[] bytes = str.getBytes(StandardCharsets.UTF_8);
+
+            writeHeader(TEXT, bytes.length);
+            writeBytes(bytes, 0, bytes.length);
+
+            return this;
+        }
+
+        public Encoder writeLong(long value) throws IOException {
+            if (value >= 0) {
+                writeHeader(UNSIGNED, value);
+            } else {
+                writeHeader(NEGATIVE, -1 - value);
+            }
+
+            return this;
+        }
+
+        public Encoder writeDouble(double value) throws IOException {
+            writeByte(FLOAT64);
+            writeRaw(Double.doubleToLongBits(value), 8);
+            return this;
+        }
+
+        public void flush() throws IOException {
+            output.write(buffer, 0, position);
+            position = 0;
+            output.flush();
+        }
+
+        private void writeHeader(int major, long length) throws IOException {
+            int type = major << 5;
+
+            if (length < 24) {
+                writeByte(type | (int) length);
+            } else if (length < 0x100) {
+                writeByte(type | 24);
+                writeRaw(length, 1);
+            } else if (length < 0x10000) {
+                writeByte(type | 25);
+                writeRaw(length, 2);
+            } else if (length < 0x100000000L) {
+                writeByte(type | 26);
+                writeRaw(length, 4);
+            } else {
+                writeByte(type | 27);
+                writeRaw(length, 8);
+            }
+        }
+
+        private void writeRaw(long value, int bytes) throws IOException {
+            for (int shift = (bytes - 1) * 8; shift >= 0; shift -= 8) {
+                writeByte((int) (value >>> shift));
+            }
+        }
+
+        private void writeByte(int b) throws IOException {
+            if (position == buffer.length) {
+                output.write(buffer, 0, position);
+                position = 0;
+            }
+
+            buffer[position++] = (byte) b;
+        }
+
+        private void writeBytes(byte[] bytes, int offset, int length) throws IOException {
+            if (length > buffer.length - position) {
+                output.write(buffer, 0, position);
+                position = 0;
+
+                if (length > buffer.length) {
+                    output.write(bytes, offset, length);
+                    return;
+                }
+            }
+
+            System.arraycopy(bytes, offset, buffer, position, length);
+            position += length;
+        }
+
+    }
+
+}
@@ -0,0 +1,199 @@
+/*
+ * MIT License
+ * 
+ * Copyright (c) 2023 Kawtious
+ * 
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and
+ * associated documentation files (the "Software"), to deal in the Software without restriction,
+ * including without limitation the rights to use, copy, modify, merge, publish, distribute,
+ * sublicense, and/or sell copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ * 
+ * The above copyright notice and this permission notice shall be included in all copies or
+ * substantial portions of the Software.
+ * 
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT
+ * NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM,
+ * DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+package net.kaw.dev.scheduler.rest.resources.utils;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * In-memory log of the writes made through this instance, numbered with a
+ * monotonic sequence. Clients sync by asking for the changes after the last
+ * sequence they saw; when that sequence is no longer covered by the log (it
+ * was trimmed, or it comes from another instance or an earlier run) they are
+ * told to reset and fetch a full snapshot instead.
+ */
+public class ChangeLog {
+
+    public static final String SINCE_KEY = "since";
+
+    public static final String NEXT_KEY = "next";
+
+    public static final String RESET_KEY = "reset";
+
+    public static final String MORE_KEY = "more";
+
+    public static final String CHANGES_KEY = "changes";
+
+    public static final String SEQUENCE_KEY = "seq";
+
+    public static final String COLLECTION_KEY = "collection";
+
+    public static final String OPERATION_KEY = "op";
+
+    public static final String ID_KEY = "id";
+
+    public static final String ITEM_KEY = "item";
+
+    public static final int MAX_ENTRIES = 4096;
+
+    public enum Operation {
+        UPSERT,
+        DELETE,
+        RESET
+    }
+
+    private static final Deque<Entry> ENTRIES = new ArrayDeque<>();
+
+    private static long sequence = System.currentTimeMillis() * 1000;
+
+    private static long floor = sequence;
+
+    public static long upsert(VersionUtils.Collection collection, String id, Map<String, Object> item) {
+        return publish(append(collection, Operation.UPSERT, id, item));
+    }
+
+    public static long upsertAll(VersionUtils.Collection collection, Map<String, Map<String, Object>> items) {
+        if (items.isEmpty()) {
+            return getSequence();
+        }
+
+        return publish(appendAll(collection, items));
+    }
+
+    public static long delete(VersionUtils.Collection collection, String id) {
+        return publish(append(collection, Operation.DELETE, id, null));
+    }
+
+    public static long reset(VersionUtils.Collection collection) {
+        return publish(append(collection, Operation.RESET, null, null));
+    }
+
+    public static synchronized long getSequence() {
+        return sequence;
+    }
+
+    public static synchronized Map<String, Object> since(long since, int limit) {
+        Map<String, Object> map = new LinkedHashMap<>();
+
+        List<Map<String, Object>> changes = new ArrayList<>();
+
+        boolean reset = since < floor || since > sequence;
+
+        long next = reset ? sequence : since;
+
+        if (!reset) {
+            for (Entry entry : ENTRIES) {
+                if (entry.sequence <= since) {
+                    continue;
+                }
+
+                if (changes.size() >= limit) {
+                    break;
+                }
+
+                changes.add(entry.toMap());
+
+                next = entry.sequence;
+            }
+        }
+
+        map.put(SINCE_KEY, since);
+        map.put(NEXT_KEY, next);
+        map.put(RESET_KEY, reset);
+        map.put(MORE_KEY, next < sequence);
+        map.put(CHANGES_KEY, changes);
+
+        return map;
+    }
+
+    private static long publish(long sequence) {
+        EventBroadcaster.changed();
+
+        return sequence;
+    }
+
+    private static synchronized long appendAll(VersionUtils.Collection collection, Map<String, Map<String, Object>> items) {
+        long last = sequence;
+
+        for (Map.Entry<String, Map<String, Object>> item : items.entrySet()) {
+            last = append(collection, Operation.UPSERT, item.getKey(), item.getValue());
+        }
+
+        return last;
+    }
+
+    private static synchronized long append(VersionUtils.Collection collection, Operation operation, String id, Map<String, Object> item) {
+        Entry entry = new Entry(++sequence, collection, operation, id, item);
+
+        ENTRIES.addLast(entry);
+
+        while (ENTRIES.size() > MAX_ENTRIES) {
+            floor = ENTRIES.removeFirst().sequence;
+        }
+
+        return entry.sequence;
+    }
+
+    private static class Entry {
+
+        private final long sequence;
+
+        private final VersionUtils.Collection collection;
+
+        private final Operation operation;
+
+        private final String id;
+
+        private final Map<String, Object> item;
+
+        private Entry(long sequence, VersionUtils.Collection collection, Operation operation, String id, Map<String, Object> item) {
+            this.sequence = sequence;
+            this.collection = collection;
+            this.operation = operation;
+            this.id = id;
+            this.item = item;
+        }
+
+        private Map<String, Object> toMap() {
+            Map<String, Object> map = new LinkedHashMap<>();
+
+            map.put(SEQUENCE_KEY, sequence);
+            map.put(COLLECTION_KEY, collection.name().toLowerCase());
+            map.put(OPERATION_KEY, operation.name().toLowerCase());
+
+            if (id != null) {
+                map.put(ID_KEY, id);
+            }
+
+            if (item != null) {
+                map.put(ITEM_KEY, item);
+            }
+
+            return map;
+        }
+
+    }
+
+}
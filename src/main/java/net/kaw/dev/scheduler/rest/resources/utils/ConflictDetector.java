@@ -0,0 +1,296 @@
+/*
+ * MIT License
+ * 
+ * Copyright (c) 2023 Kawtious
+ * 
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and
+ * associated documentation files (the "Software"), to deal in the Software without restriction,
+ * including without limitation the rights to use, copy, modify, merge, publish, distribute,
+ * sublicense, and/or sell copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ * 
+ * The above copyright notice and this permission notice shall be included in all copies or
+ * substantial portions of the Software.
+ * 
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT
+ * NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM,
+ * DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+package net.kaw.dev.scheduler.rest.resources.utils;
+
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+import net.kaw.dev.scheduler.data.ScheduleMap;
+import net.kaw.dev.scheduler.data.Teacher;
+import net.kaw.dev.scheduler.exceptions.InvalidDataException;
+import net.kaw.dev.scheduler.rest.persistence.InstrumentedSQLControl;
+
+/**
+ * Finds overlapping schedule maps: half-hour slots that more than one schedule
+ * map of the same teacher and cycle marks available, read through the same
+ * AVAILABLE_KEY bits as the AvailabilityIndex. Results are kept per teacher
+ * and updated after the teacher write paths, so a post only re-checks the
+ * posted teacher; the full faculty is only scanned, fork-join across
+ * teachers, when the results are first needed or after they were dropped. A
+ * teacher whose schedule maps cannot be read drops the results instead of
+ * failing the write.
+ */
+public class ConflictDetector {
+
+    public static final String TEACHER_KEY = "teacher";
+
+    public static final String CYCLE_KEY = AvailabilityIndex.CYCLE_KEY;
+
+    public static final String SLOTS_KEY = "slots";
+
+    public static final String SCHEDULE_MAPS_KEY = "schedule_maps";
+
+    public static final String CONFLICTS_KEY = "conflicts";
+
+    private static final int SPLIT_THRESHOLD = 64;
+
+    private static final Map<String, List<Map<String, Object>>> CONFLICTS = new ConcurrentHashMap<>();
+
+    private static volatile boolean built;
+
+    private static long modifications;
+
+    public static List<Map<String, Object>> detect(Teacher teacher) throws InvalidDataException {
+        Map<String, List<long[]>> cycles = new LinkedHashMap<>();
+
+        if (teacher.getScheduleMaps() != null) {
+            for (ScheduleMap scheduleMap : teacher.getScheduleMaps()) {
+                Map<String, Object> map = scheduleMap.toMap();
+
+                cycles.computeIfAbsent(AvailabilityIndex.getCycle(map), k -> new ArrayList<>()).add(AvailabilityIndex.toBitset(map));
+            }
+        }
+
+        List<Map<String, Object>> conflicts = new ArrayList<>();
+
+        for (Map.Entry<String, List<long[]>> cycle : cycles.entrySet()) {
+            List<Map<String, Object>> slots = detect(cycle.getValue());
+
+            if (!slots.isEmpty()) {
+                Map<String, Object> conflict = new LinkedHashMap<>();
+
+                conflict.put(TEACHER_KEY, teacher.getId());
+                conflict.put(CYCLE_KEY, cycle.getKey());
+                conflict.put(SLOTS_KEY, slots);
+
+                conflicts.add(conflict);
+            }
+        }
+
+        return conflicts;
+    }
+
+    public static Map<String, List<Map<String, Object>>> detectAll(List<Teacher> teachers) throws InvalidDataException {
+        try {
+            return ForkJoinPool.commonPool().invoke(new DetectTask(teachers, 0, teachers.size()));
+        } catch (DetectException ex) {
+            throw ex.exception;
+        }
+    }
+
+    public static List<Map<String, Object>> get(String id) throws SQLException, InvalidDataException {
+        ensureBuilt();
+
+        return CONFLICTS.getOrDefault(id, Collections.emptyList());
+    }
+
+    public static List<Map<String, Object>> getAll() throws SQLException, InvalidDataException {
+        ensureBuilt();
+
+        List<Map<String, Object>> conflicts = new ArrayList<>();
+
+        for (List<Map<String, Object>> teacherConflicts : new TreeMap<>(CONFLICTS).values()) {
+            conflicts.addAll(teacherConflicts);
+        }
+
+        return conflicts;
+    }
+
+    public static List<Map<String, Object>> update(Teacher teacher) {
+        List<Map<String, Object>> conflicts;
+
+        try {
+            conflicts = detect(teacher);
+        } catch (IllegalStateException | InvalidDataException ex) {
+            Logger.getLogger(ConflictDetector.class.getName()).log(Level.SEVERE, null, ex);
+            invalidate();
+            return Collections.emptyList();
+        }
+
+        synchronized (ConflictDetector.class) {
+            modifications++;
+
+            if (conflicts.isEmpty()) {
+                CONFLICTS.remove(teacher.getId());
+            } else {
+                CONFLICTS.put(teacher.getId(), conflicts);
+            }
+        }
+
+        return conflicts;
+    }
+
+    public static synchronized void remove(String id) {
+        modifications++;
+
+        CONFLICTS.remove(id);
+    }
+
+    public static synchronized void invalidate() {
+        modifications++;
+
+        built = false;
+
+        CONFLICTS.clear();
+    }
+
+    private static void ensureBuilt() throws SQLException, InvalidDataException {
+        if (built) {
+            return;
+        }
+
+        long start;
+
+        synchronized (ConflictDetector.class) {
+            start = modifications;
+        }
+
+        Map<String, List<Map<String, Object>>> conflicts = detectAll(InstrumentedSQLControl.Teachers.select());
+
+        synchronized (ConflictDetector.class) {
+            if (built) {
+                return;
+            }
+
+            if (modifications != start) {
+                conflicts.putAll(CONFLICTS);
+            }
+
+            CONFLICTS.keySet().retainAll(conflicts.keySet());
+            CONFLICTS.putAll(conflicts);
+
+            built = modifications == start;
+        }
+    }
+
+    private static List<Map<String, Object>> detect(List<long[]> scheduleMaps) {
+        long[] seen = new long[AvailabilityIndex.WORDS];
+        long[] conflicting = new long[AvailabilityIndex.WORDS];
+
+        for (long[] bits : scheduleMaps) {
+            for (int word = 0; word < AvailabilityIndex.WORDS; word++) {
+                conflicting[word] |= seen[word] & bits[word];
+                seen[word] |= bits[word];
+            }
+        }
+
+        List<Map<String, Object>> slots = new ArrayList<>();
+
+        for (int word = 0; word < AvailabilityIndex.WORDS; word++) {
+            long bits = conflicting[word];
+
+            while (bits != 0) {
+                int slot = word * Long.SIZE + Long.numberOfTrailingZeros(bits);
+
+                List<Integer> indexes = new ArrayList<>();
+
+                for (int i = 0; i < scheduleMaps.size(); i++) {
+                    if ((scheduleMaps.get(i)[word] & (1L << slot)) != 0) {
+                        indexes.add(i);
+                    }
+                }
+
+                Map<String, Object> conflict = new LinkedHashMap<>();
+
+                conflict.put(AvailabilityIndex.DAY_KEY, slot / AvailabilityIndex.HALF_HOURS);
+                conflict.put(AvailabilityIndex.HALF_HOUR_KEY, slot % AvailabilityIndex.HALF_HOURS);
+                conflict.put(SCHEDULE_MAPS_KEY, indexes);
+
+                slots.add(conflict);
+
+                bits &= bits - 1;
+            }
+        }
+
+        return slots;
+    }
+
+    private static class DetectTask extends RecursiveTask<Map<String, List<Map<String, Object>>>> {
+
+        private final List<Teacher> teachers;
+
+        private final int from;
+
+        private final int to;
+
+        private DetectTask(List<Teacher> teachers, int from, int to) {
+            this.teachers = teachers;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected Map<String, List<Map<String, Object>>> compute() {
+            if (to - from <= SPLIT_THRESHOLD) {
+                Map<String, List<Map<String, Object>>> conflicts = new HashMap<>();
+
+                for (int i = from; i < to; i++) {
+                    Teacher teacher = teachers.get(i);
+
+                    try {
+                        List<Map<String, Object>> teacherConflicts = detect(teacher);
+
+                        if (!teacherConflicts.isEmpty()) {
+                            conflicts.put(teacher.getId(), teacherConflicts);
+                        }
+                    } catch (InvalidDataException ex) {
+                        throw new DetectException(ex);
+                    }
+                }
+
+                return conflicts;
+            }
+
+            int middle = (from + to) >>> 1;
+
+            DetectTask left = new DetectTask(teachers, from, middle);
+            left.fork();
+
+            Map<String, List<Map<String, Object>>> conflicts = new DetectTask(teachers, middle, to).compute();
+            conflicts.putAll(left.join());
+
+            return conflicts;
+        }
+
+    }
+
+    private static class DetectException extends RuntimeException {
+
+        private final InvalidDataException exception;
+
+        private DetectException(InvalidDataException exception) {
+            super(exception);
+            this.exception = exception;
+        }
+
+    }
+
+}
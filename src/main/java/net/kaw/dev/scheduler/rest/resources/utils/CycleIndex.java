@@ -0,0 +1,204 @@
+/*
+ * MIT License
+ * 
+ * Copyright (c) 2023 Kawtious
+ * 
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and
+ * associated documentation files (the "Software"), to deal in the Software without restriction,
+ * including without limitation the rights to use, copy, modify, merge, publish, distribute,
+ * sublicense, and/or sell copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ * 
+ * The above copyright notice and this permission notice shall be included in all copies or
+ * substantial portions of the Software.
+ * 
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT
+ * NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM,
+ * DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+package net.kaw.dev.scheduler.rest.resources.utils;
+
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantLock;
+import net.kaw.dev.scheduler.data.Cycle;
+import net.kaw.dev.scheduler.exceptions.InvalidDataException;
+import net.kaw.dev.scheduler.rest.persistence.InstrumentedSQLControl;
+import net.kaw.dev.scheduler.utils.JSONUtils;
+
+/**
+ * In-memory interval index of cycles used to answer /cycles/current without
+ * touching the database. The JSON of the current cycle is kept until the next
+ * cycle boundary passes.
+ */
+public class CycleIndex {
+
+    private static final Lock LOCK = new ReentrantLock();
+
+    private static volatile Snapshot snapshot;
+
+    private static volatile Current current;
+
+    public static String getCurrentJSON() throws SQLException, InvalidDataException {
+        long now = System.currentTimeMillis();
+
+        Snapshot s = getSnapshot();
+
+        Current c = current;
+
+        if (c != null && c.snapshot == s && now >= c.validFrom && now < c.validUntil) {
+            return c.json;
+        }
+
+        c = s.current(now);
+
+        current = c;
+
+        return c.json;
+    }
+
+    public static void rebuild() throws SQLException, InvalidDataException {
+        LOCK.lock();
+
+        try {
+            snapshot = new Snapshot(InstrumentedSQLControl.Cycles.select());
+            current = null;
+        } finally {
+            LOCK.unlock();
+        }
+
+        EventBroadcaster.checkCurrentCycle();
+    }
+
+    public static long getNextBoundary() throws SQLException, InvalidDataException {
+        getCurrentJSON();
+
+        Current c = current;
+
+        return c == null ? Long.MAX_VALUE : c.validUntil;
+    }
+
+    public static void invalidate() {
+        snapshot = null;
+        current = null;
+    }
+
+    private static Snapshot getSnapshot() throws SQLException, InvalidDataException {
+        Snapshot s = snapshot;
+
+        if (s != null) {
+            return s;
+        }
+
+        LOCK.lock();
+
+        try {
+            if (snapshot == null) {
+                snapshot = new Snapshot(InstrumentedSQLControl.Cycles.select());
+            }
+
+            return snapshot;
+        } finally {
+            LOCK.unlock();
+        }
+    }
+
+    private static class Snapshot {
+
+        private final Cycle fallback;
+
+        private final Cycle[] cycles;
+
+        private final long[] starts;
+
+        private final long[] ends;
+
+        private final long[] maxEnds;
+
+        private Snapshot(List<Cycle> list) {
+            fallback = list.isEmpty() ? null : list.get(0);
+
+            List<Cycle> sorted = new ArrayList<>(list);
+            sorted.sort(Comparator.comparingLong(Cycle::getStart));
+
+            cycles = sorted.toArray(new Cycle[0]);
+            starts = new long[cycles.length];
+            ends = new long[cycles.length];
+            maxEnds = new long[cycles.length];
+
+            for (int i = 0; i < cycles.length; i++) {
+                starts[i] = cycles[i].getStart();
+                ends[i] = cycles[i].getEnd();
+                maxEnds[i] = i == 0 ? ends[i] : Math.max(maxEnds[i - 1], ends[i]);
+            }
+        }
+
+        private int lastStartingAtOrBefore(long time) {
+            int index = Arrays.binarySearch(starts, time);
+
+            if (index < 0) {
+                return -index - 2;
+            }
+
+            while (index + 1 < starts.length && starts[index + 1] == time) {
+                index++;
+            }
+
+            return index;
+        }
+
+        private int indexOf(long time, int last) {
+            for (int i = last; i >= 0 && maxEnds[i] >= time; i--) {
+                if (ends[i] >= time) {
+                    return i;
+                }
+            }
+
+            return -1;
+        }
+
+        private Current current(long time) throws InvalidDataException {
+            int last = lastStartingAtOrBefore(time);
+            int index = indexOf(time, last);
+
+            long validUntil = last + 1 < starts.length ? starts[last + 1] : Long.MAX_VALUE;
+
+            if (index >= 0 && ends[index] < Long.MAX_VALUE) {
+                validUntil = Math.min(validUntil, ends[index] + 1);
+            }
+
+            Cycle cycle = index < 0 ? fallback : cycles[index];
+
+            String json = cycle == null ? null : JSONUtils.mapToJSON(cycle.toMap());
+
+            return new Current(this, json, time, validUntil);
+        }
+
+    }
+
+    private static class Current {
+
+        private final Snapshot snapshot;
+
+        private final String json;
+
+        private final long validFrom;
+
+        private final long validUntil;
+
+        private Current(Snapshot snapshot, String json, long validFrom, long validUntil) {
+            this.snapshot = snapshot;
+            this.json = json;
+            this.validFrom = validFrom;
+            this.validUntil = validUntil;
+        }
+
+    }
+
+}
@@ -20,15 +20,17 @@
  */
 package net.kaw.dev.scheduler.rest.resources.utils;
 
-import java.security.InvalidKeyException;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
 import java.security.Key;
-import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
 import java.util.logging.Level;
 import java.util.logging.Logger;
-import javax.crypto.BadPaddingException;
 import javax.crypto.Cipher;
-import javax.crypto.IllegalBlockSizeException;
-import javax.crypto.NoSuchPaddingException;
 import javax.crypto.spec.SecretKeySpec;
 
 /**
@@ -39,31 +41,157 @@ public class EncryptionUtils {
 
     private static final String KEY = "Bar12345Bar12345";
 
+    private static final String ALGORITHM = "AES";
+
+    private static final Key AES_KEY = new SecretKeySpec(KEY.getBytes(StandardCharsets.UTF_8), ALGORITHM);
+
+    private static final int POOL_SIZE = 2 * Runtime.getRuntime().availableProcessors();
+
+    // Cipher instances are not thread safe. A ThreadLocal would never be
+    // reused on AsyncUtils' virtual threads, so idle ciphers are pooled instead
+    private static final BlockingQueue<Cipher> ENCRYPT_CIPHERS = new ArrayBlockingQueue<>(POOL_SIZE);
+
+    private static final BlockingQueue<Cipher> DECRYPT_CIPHERS = new ArrayBlockingQueue<>(POOL_SIZE);
+
+    /**
+     * @deprecated Returns the raw ciphertext in the platform charset, which is
+     * lossy and cannot be decrypted reliably. Kept so stored ciphertexts keep
+     * matching; use {@link #encryptBase64(String)} for new values.
+     */
+    @Deprecated
     public static String encrypt(String str) {
+        byte[] encrypted = encrypt(str.getBytes());
+
+        return encrypted == null ? null : new String(encrypted);
+    }
+
+    public static byte[] encrypt(byte[] bytes) {
+        return doFinal(ENCRYPT_CIPHERS, Cipher.ENCRYPT_MODE, bytes);
+    }
+
+    public static String decrypt(byte[] encrypted) {
+        byte[] decrypted = doFinal(DECRYPT_CIPHERS, Cipher.DECRYPT_MODE, encrypted);
+
+        return decrypted == null ? null : new String(decrypted);
+    }
+
+    public static String encryptBase64(String str) {
+        byte[] encrypted = encrypt(str.getBytes(StandardCharsets.UTF_8));
+
+        return encrypted == null ? null : Base64.getEncoder().encodeToString(encrypted);
+    }
+
+    public static String decryptBase64(String encrypted) {
+        byte[] bytes = decodeBase64(encrypted);
+
+        if (bytes == null) {
+            return null;
+        }
+
+        byte[] decrypted = doFinal(DECRYPT_CIPHERS, Cipher.DECRYPT_MODE, bytes);
+
+        return decrypted == null ? null : new String(decrypted, StandardCharsets.UTF_8);
+    }
+
+    public static List<String> encryptBase64(List<String> strs) {
+        List<String> encrypted = new ArrayList<>(strs.size());
+
+        // One cipher for the whole batch instead of a pool round trip per value
+        Cipher cipher = borrow(ENCRYPT_CIPHERS, Cipher.ENCRYPT_MODE);
+
+        try {
+            for (String str : strs) {
+                byte[] bytes = doFinal(cipher, str.getBytes(StandardCharsets.UTF_8));
+
+                if (bytes == null) {
+                    cipher = createCipher(Cipher.ENCRYPT_MODE);
+                }
+
+                encrypted.add(bytes == null ? null : Base64.getEncoder().encodeToString(bytes));
+            }
+        } finally {
+            giveBack(ENCRYPT_CIPHERS, cipher, true);
+        }
+
+        return encrypted;
+    }
+
+    public static List<String> decryptBase64(List<String> encrypted) {
+        List<String> decrypted = new ArrayList<>(encrypted.size());
+
+        Cipher cipher = borrow(DECRYPT_CIPHERS, Cipher.DECRYPT_MODE);
+
         try {
-            // Create key and cipher
-            Key aesKey = new SecretKeySpec(KEY.getBytes(), "AES");
-            Cipher cipher = Cipher.getInstance("AES");
-            // encrypt the text
-            cipher.init(Cipher.ENCRYPT_MODE, aesKey);
-            byte[] encrypted = cipher.doFinal(str.getBytes());
-            return new String(encrypted);
-        } catch (IllegalBlockSizeException | BadPaddingException | InvalidKeyException | NoSuchAlgorithmException | NoSuchPaddingException ex) {
+            for (String str : encrypted) {
+                byte[] bytes = decodeBase64(str);
+
+                byte[] plain = bytes == null ? null : doFinal(cipher, bytes);
+
+                if (bytes != null && plain == null) {
+                    // A failed doFinal leaves the cipher in an unknown state
+                    cipher = createCipher(Cipher.DECRYPT_MODE);
+                }
+
+                decrypted.add(plain == null ? null : new String(plain, StandardCharsets.UTF_8));
+            }
+        } finally {
+            giveBack(DECRYPT_CIPHERS, cipher, true);
+        }
+
+        return decrypted;
+    }
+
+    private static byte[] decodeBase64(String encrypted) {
+        if (encrypted == null) {
+            return null;
+        }
+
+        try {
+            return Base64.getDecoder().decode(encrypted);
+        } catch (IllegalArgumentException ex) {
             Logger.getLogger(EncryptionUtils.class.getName()).log(Level.SEVERE, null, ex);
         }
 
         return null;
     }
 
-    public static String decrypt(byte[] encrypted) {
+    private static Cipher createCipher(int mode) {
+        try {
+            Cipher cipher = Cipher.getInstance(ALGORITHM);
+            cipher.init(mode, AES_KEY);
+            return cipher;
+        } catch (GeneralSecurityException ex) {
+            throw new IllegalStateException(ex);
+        }
+    }
+
+    private static Cipher borrow(BlockingQueue<Cipher> pool, int mode) {
+        Cipher cipher = pool.poll();
+
+        return cipher == null ? createCipher(mode) : cipher;
+    }
+
+    private static void giveBack(BlockingQueue<Cipher> pool, Cipher cipher, boolean reusable) {
+        if (reusable) {
+            pool.offer(cipher);
+        }
+    }
+
+    private static byte[] doFinal(BlockingQueue<Cipher> pool, int mode, byte[] bytes) {
+        Cipher cipher = borrow(pool, mode);
+
+        byte[] result = doFinal(cipher, bytes);
+
+        giveBack(pool, cipher, result != null);
+
+        return result;
+    }
+
+    private static byte[] doFinal(Cipher cipher, byte[] bytes) {
         try {
-            // Create key and cipher
-            Key aesKey = new SecretKeySpec(KEY.getBytes(), "AES");
-            Cipher cipher = Cipher.getInstance("AES");
-            // decrypt the text
-            cipher.init(Cipher.DECRYPT_MODE, aesKey);
-            return new String(cipher.doFinal(encrypted));
-        } catch (NoSuchAlgorithmException | NoSuchPaddingException | InvalidKeyException | IllegalBlockSizeException | BadPaddingException ex) {
+            // doFinal resets the cipher to its initialized state for the next call
+            return cipher.doFinal(bytes);
+        } catch (GeneralSecurityException ex) {
             Logger.getLogger(EncryptionUtils.class.getName()).log(Level.SEVERE, null, ex);
         }
 
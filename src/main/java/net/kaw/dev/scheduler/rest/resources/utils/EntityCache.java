@@ -0,0 +1,295 @@
+/*
+ * MIT License
+ * 
+ * Copyright (c) 2023 Kawtious
+ * 
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and
+ * associated documentation files (the "Software"), to deal in the Software without restriction,
+ * including without limitation the rights to use, copy, modify, merge, publish, distribute,
+ * sublicense, and/or sell copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ * 
+ * The above copyright notice and this permission notice shall be included in all copies or
+ * substantial portions of the Software.
+ * 
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT
+ * NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM,
+ * DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+package net.kaw.dev.scheduler.rest.resources.utils;
+
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import net.kaw.dev.scheduler.data.Cycle;
+import net.kaw.dev.scheduler.data.Teacher;
+import net.kaw.dev.scheduler.exceptions.InvalidDataException;
+import net.kaw.dev.scheduler.rest.persistence.InstrumentedSQLControl;
+
+/**
+ * Bounded read-through id to entity cache with TTL and LRU eviction, shared
+ * by the entity lookups and AuthCache. Concurrent misses for the same id
+ * share a single load, and a load that races with an invalidation is returned
+ * to its callers but not cached. Eviction trims EVICTION_BATCH entries at a
+ * time, so the scan runs once per batch of puts rather than on every put.
+ */
+public class EntityCache<T> {
+
+    public static final int MAX_SIZE = 1024;
+
+    public static final long TTL = TimeUnit.MINUTES.toMillis(5);
+
+    public static final int EVICTION_BATCH = MAX_SIZE / 8;
+
+    public static final EntityCache<Teacher> TEACHERS = new EntityCache<>("teachers", InstrumentedSQLControl.Teachers::select);
+
+    public static final EntityCache<Cycle> CYCLES = new EntityCache<>("cycles", InstrumentedSQLControl.Cycles::select);
+
+    public interface Loader<T> {
+
+        T load(String id) throws SQLException, InvalidDataException;
+
+    }
+
+    private final String name;
+
+    private final Loader<T> loader;
+
+    private final Map<String, Entry<T>> cache = new ConcurrentHashMap<>();
+
+    private final Map<String, CompletableFuture<T>> loading = new ConcurrentHashMap<>();
+
+    private final AtomicLong generation = new AtomicLong();
+
+    private final AtomicBoolean evicting = new AtomicBoolean();
+
+    private final LongAdder hits = new LongAdder();
+
+    private final LongAdder misses = new LongAdder();
+
+    private final LongAdder coalesced = new LongAdder();
+
+    private final LongAdder evictions = new LongAdder();
+
+    private final Histogram loadTime = new Histogram();
+
+    public EntityCache(String name, Loader<T> loader) {
+        this.name = name;
+        this.loader = loader;
+    }
+
+    public T get(String id) throws SQLException, InvalidDataException {
+        if (id == null) {
+            return null;
+        }
+
+        long now = System.currentTimeMillis();
+
+        Entry<T> entry = cache.get(id);
+
+        if (entry != null) {
+            if (now - entry.created < TTL) {
+                entry.lastAccess = now;
+                hits.increment();
+                return entry.value;
+            }
+
+            cache.remove(id, entry);
+        }
+
+        misses.increment();
+
+        CompletableFuture<T> load = new CompletableFuture<>();
+        CompletableFuture<T> pending = loading.putIfAbsent(id, load);
+
+        if (pending != null) {
+            coalesced.increment();
+            return await(pending);
+        }
+
+        long loadGeneration = generation.get();
+        long start = System.nanoTime();
+
+        try {
+            T value = loader.load(id);
+
+            loadTime.record((System.nanoTime() - start) / 1000);
+
+            if (value != null) {
+                put(id, new Entry<>(value, now), loadGeneration);
+            }
+
+            load.complete(value);
+
+            return value;
+        } catch (SQLException | InvalidDataException | RuntimeException | Error ex) {
+            load.completeExceptionally(ex);
+            throw ex;
+        } finally {
+            loading.remove(id, load);
+        }
+    }
+
+    public T peek(String id) {
+        Entry<T> entry = id == null ? null : cache.get(id);
+
+        if (entry == null || System.currentTimeMillis() - entry.created >= TTL) {
+            return null;
+        }
+
+        return entry.value;
+    }
+
+    public void invalidate(String id) {
+        if (id != null) {
+            generation.incrementAndGet();
+            loading.remove(id);
+            cache.remove(id);
+        }
+    }
+
+    public void clear() {
+        generation.incrementAndGet();
+        loading.clear();
+        cache.clear();
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public long getHits() {
+        return hits.sum();
+    }
+
+    public long getMisses() {
+        return misses.sum();
+    }
+
+    public long getCoalesced() {
+        return coalesced.sum();
+    }
+
+    public long getEvictions() {
+        return evictions.sum();
+    }
+
+    public int getSize() {
+        return cache.size();
+    }
+
+    public Histogram getLoadTime() {
+        return loadTime;
+    }
+
+    private static <T> T await(CompletableFuture<T> pending) throws SQLException, InvalidDataException {
+        try {
+            return pending.get();
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            throw new SQLException(ex);
+        } catch (ExecutionException ex) {
+            Throwable cause = ex.getCause();
+
+            if (cause instanceof SQLException) {
+                throw (SQLException) cause;
+            }
+
+            if (cause instanceof InvalidDataException) {
+                throw (InvalidDataException) cause;
+            }
+
+            if (cause instanceof RuntimeException) {
+                throw (RuntimeException) cause;
+            }
+
+            if (cause instanceof Error) {
+                throw (Error) cause;
+            }
+
+            throw new SQLException(cause);
+        }
+    }
+
+    private void put(String id, Entry<T> entry, long loadGeneration) {
+        cache.compute(id, (key, current) -> loadGeneration == generation.get() ? entry : current);
+
+        if (cache.size() > MAX_SIZE) {
+            evictLeastRecentlyUsed();
+        }
+    }
+
+    private void evictLeastRecentlyUsed() {
+        if (!evicting.compareAndSet(false, true)) {
+            return;
+        }
+
+        try {
+            List<Candidate<T>> candidates = new ArrayList<>(cache.size());
+
+            for (Map.Entry<String, Entry<T>> entry : cache.entrySet()) {
+                candidates.add(new Candidate<>(entry.getKey(), entry.getValue()));
+            }
+
+            int excess = candidates.size() - (MAX_SIZE - EVICTION_BATCH);
+
+            if (excess <= 0) {
+                return;
+            }
+
+            candidates.sort(Comparator.comparingLong(candidate -> candidate.lastAccess));
+
+            for (int i = 0; i < excess; i++) {
+                if (cache.remove(candidates.get(i).id, candidates.get(i).entry)) {
+                    evictions.increment();
+                }
+            }
+        } finally {
+            evicting.set(false);
+        }
+    }
+
+    private static class Entry<T> {
+
+        private final T value;
+
+        private final long created;
+
+        private volatile long lastAccess;
+
+        private Entry(T value, long created) {
+            this.value = value;
+            this.created = created;
+            this.lastAccess = created;
+        }
+
+    }
+
+    private static class Candidate<T> {
+
+        private final String id;
+
+        private final Entry<T> entry;
+
+        private final long lastAccess;
+
+        private Candidate(String id, Entry<T> entry) {
+            this.id = id;
+            this.entry = entry;
+            this.lastAccess = entry.lastAccess;
+        }
+
+    }
+
+}
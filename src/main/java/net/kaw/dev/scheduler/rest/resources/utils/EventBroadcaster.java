@@ -0,0 +1,391 @@
+/*
+ * MIT License
+ * 
+ * Copyright (c) 2023 Kawtious
+ * 
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and
+ * associated documentation files (the "Software"), to deal in the Software without restriction,
+ * including without limitation the rights to use, copy, modify, merge, publish, distribute,
+ * sublicense, and/or sell copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ * 
+ * The above copyright notice and this permission notice shall be included in all copies or
+ * substantial portions of the Software.
+ * 
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT
+ * NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM,
+ * DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+package net.kaw.dev.scheduler.rest.resources.utils;
+
+import jakarta.ws.rs.sse.OutboundSseEvent;
+import jakarta.ws.rs.sse.Sse;
+import jakarta.ws.rs.sse.SseEventSink;
+import java.sql.SQLException;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+import net.kaw.dev.scheduler.exceptions.InvalidDataException;
+import net.kaw.dev.scheduler.utils.JSONUtils;
+
+/**
+ * Fans change events out to Server-Sent Events subscribers. Every ChangeLog
+ * entry is published under the name of its collection with its sequence as
+ * the event id, and the current cycle is published whenever it rolls over.
+ * Writers only signal that the log moved; the events thread reads the new
+ * entries in sequence order and queues them per subscriber, and each
+ * subscriber's buffer is sent from the sender pool. A subscriber whose
+ * buffer fills up is disconnected and has to reconnect with its
+ * Last-Event-ID. On shutdown every subscriber is closed and both executors
+ * are stopped, and later subscribers are closed as soon as they arrive.
+ */
+public class EventBroadcaster {
+
+    public static final int BUFFER_SIZE = 256;
+
+    public static final String CURRENT_CYCLE_EVENT = "current_cycle";
+
+    public static final String RESET_EVENT = "reset";
+
+    private static final long MAX_CHECK_DELAY = TimeUnit.MINUTES.toMillis(1);
+
+    private static final long SHUTDOWN_TIMEOUT = 5;
+
+    private static final Set<Subscriber> SUBSCRIBERS = ConcurrentHashMap.newKeySet();
+
+    private static final LongAdder DROPPED = new LongAdder();
+
+    private static final AtomicBoolean DISPATCH_PENDING = new AtomicBoolean();
+
+    private static final ScheduledExecutorService SCHEDULER = Executors.newSingleThreadScheduledExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "scheduler-rest-events");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    private static final ExecutorService SENDERS = createSenders();
+
+    private static volatile Sse sse;
+
+    private static volatile String currentCycleJSON;
+
+    private static volatile boolean stopped;
+
+    private static long dispatched = ChangeLog.getSequence();
+
+    private static ScheduledFuture<?> check;
+
+    public static void subscribe(Sse sse, SseEventSink sink, Long lastEventId) {
+        if (stopped) {
+            closeNow(sink);
+            return;
+        }
+
+        EventBroadcaster.sse = sse;
+
+        Subscriber subscriber;
+
+        synchronized (ChangeLog.class) {
+            subscriber = new Subscriber(sink, ChangeLog.getSequence());
+
+            if (lastEventId != null) {
+                replay(subscriber, ChangeLog.since(lastEventId, BUFFER_SIZE - 1));
+            }
+
+            SUBSCRIBERS.add(subscriber);
+        }
+
+        if (stopped) {
+            SUBSCRIBERS.remove(subscriber);
+            closeNow(sink);
+            return;
+        }
+
+        String json = currentCycleJSON;
+
+        if (json != null) {
+            subscriber.offer(sse.newEventBuilder().name(CURRENT_CYCLE_EVENT).data(json).build());
+        }
+
+        subscriber.drain();
+
+        scheduleCheck(json == null ? 0 : MAX_CHECK_DELAY);
+    }
+
+    public static void changed() {
+        if (!stopped && !SUBSCRIBERS.isEmpty() && DISPATCH_PENDING.compareAndSet(false, true)) {
+            execute(SCHEDULER, EventBroadcaster::dispatch);
+        }
+    }
+
+    public static void shutdown() {
+        stopped = true;
+
+        synchronized (EventBroadcaster.class) {
+            if (check != null) {
+                check.cancel(false);
+                check = null;
+            }
+        }
+
+        SCHEDULER.shutdownNow();
+
+        for (Subscriber subscriber : SUBSCRIBERS) {
+            SUBSCRIBERS.remove(subscriber);
+            closeNow(subscriber.sink);
+        }
+
+        SENDERS.shutdown();
+
+        try {
+            if (!SENDERS.awaitTermination(SHUTDOWN_TIMEOUT, TimeUnit.SECONDS)) {
+                SENDERS.shutdownNow();
+            }
+        } catch (InterruptedException ex) {
+            SENDERS.shutdownNow();
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    public static void checkCurrentCycle() {
+        scheduleCheck(0);
+    }
+
+    public static int getSize() {
+        return SUBSCRIBERS.size();
+    }
+
+    public static long getDropped() {
+        return DROPPED.sum();
+    }
+
+    private static void dispatch() {
+        DISPATCH_PENDING.set(false);
+
+        Sse s = sse;
+
+        boolean more = true;
+
+        while (more) {
+            Map<String, Object> changes = ChangeLog.since(dispatched, BUFFER_SIZE);
+
+            more = Boolean.TRUE.equals(changes.get(ChangeLog.MORE_KEY));
+
+            if (s == null || SUBSCRIBERS.isEmpty()) {
+                dispatched = (Long) changes.get(ChangeLog.NEXT_KEY);
+                continue;
+            }
+
+            if (Boolean.TRUE.equals(changes.get(ChangeLog.RESET_KEY))) {
+                dispatched = (Long) changes.get(ChangeLog.NEXT_KEY);
+                publish(s.newEventBuilder().name(RESET_EVENT).data(String.valueOf(dispatched)).build(), dispatched);
+                continue;
+            }
+
+            for (Object entry : (List<?>) changes.get(ChangeLog.CHANGES_KEY)) {
+                @SuppressWarnings("unchecked")
+                Map<String, Object> map = (Map<String, Object>) entry;
+
+                long sequence = ((Number) map.get(ChangeLog.SEQUENCE_KEY)).longValue();
+
+                publish(s.newEventBuilder().id(Long.toString(sequence)).name((String) map.get(ChangeLog.COLLECTION_KEY))
+                        .data(JSONUtils.mapToJSON(map)).build(), sequence);
+            }
+
+            dispatched = (Long) changes.get(ChangeLog.NEXT_KEY);
+        }
+    }
+
+    private static void publish(OutboundSseEvent event, long sequence) {
+        for (Subscriber subscriber : SUBSCRIBERS) {
+            if (subscriber.sink.isClosed()) {
+                SUBSCRIBERS.remove(subscriber);
+            } else if (sequence <= subscriber.from) {
+                continue;
+            } else if (subscriber.offer(event)) {
+                subscriber.drain();
+            } else {
+                DROPPED.increment();
+                close(subscriber);
+            }
+        }
+    }
+
+    private static void replay(Subscriber subscriber, Map<String, Object> changes) {
+        List<?> entries = (List<?>) changes.get(ChangeLog.CHANGES_KEY);
+
+        if (Boolean.TRUE.equals(changes.get(ChangeLog.RESET_KEY)) || Boolean.TRUE.equals(changes.get(ChangeLog.MORE_KEY))) {
+            subscriber.offer(sse.newEventBuilder().name(RESET_EVENT).data(String.valueOf(ChangeLog.getSequence())).build());
+            return;
+        }
+
+        for (Object entry : entries) {
+            @SuppressWarnings("unchecked")
+            Map<String, Object> map = (Map<String, Object>) entry;
+
+            subscriber.offer(sse.newEventBuilder().id(String.valueOf(map.get(ChangeLog.SEQUENCE_KEY)))
+                    .name((String) map.get(ChangeLog.COLLECTION_KEY)).data(JSONUtils.mapToJSON(map)).build());
+        }
+    }
+
+    private static synchronized void scheduleCheck(long delay) {
+        if (stopped) {
+            return;
+        }
+
+        if (check != null) {
+            if (check.getDelay(TimeUnit.MILLISECONDS) <= delay) {
+                return;
+            }
+
+            check.cancel(false);
+        }
+
+        check = SCHEDULER.schedule(EventBroadcaster::doCheckCurrentCycle, delay, TimeUnit.MILLISECONDS);
+    }
+
+    private static void doCheckCurrentCycle() {
+        synchronized (EventBroadcaster.class) {
+            check = null;
+        }
+
+        if (SUBSCRIBERS.isEmpty()) {
+            currentCycleJSON = null;
+            return;
+        }
+
+        long delay = MAX_CHECK_DELAY;
+
+        try {
+            String json = CycleIndex.getCurrentJSON();
+
+            if (!Objects.equals(json, currentCycleJSON)) {
+                currentCycleJSON = json;
+
+                publish(sse.newEventBuilder().name(CURRENT_CYCLE_EVENT).data(json == null ? "null" : json).build(), Long.MAX_VALUE);
+            }
+
+            delay = Math.max(0, Math.min(delay, CycleIndex.getNextBoundary() - System.currentTimeMillis()));
+        } catch (SQLException | InvalidDataException | RuntimeException ex) {
+            Logger.getLogger(EventBroadcaster.class.getName()).log(Level.SEVERE, null, ex);
+        }
+
+        scheduleCheck(delay);
+    }
+
+    private static void close(Subscriber subscriber) {
+        SUBSCRIBERS.remove(subscriber);
+
+        if (!execute(SENDERS, () -> closeNow(subscriber.sink))) {
+            closeNow(subscriber.sink);
+        }
+    }
+
+    private static void closeNow(SseEventSink sink) {
+        try {
+            sink.close();
+        } catch (RuntimeException ex) {
+            Logger.getLogger(EventBroadcaster.class.getName()).log(Level.FINE, null, ex);
+        }
+    }
+
+    private static boolean execute(ExecutorService executor, Runnable task) {
+        try {
+            executor.execute(task);
+            return true;
+        } catch (RejectedExecutionException ex) {
+            return false;
+        }
+    }
+
+    private static ExecutorService createSenders() {
+        AtomicInteger count = new AtomicInteger();
+
+        return Executors.newCachedThreadPool(runnable -> {
+            Thread thread = new Thread(runnable, "scheduler-rest-events-sender-" + count.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    private static class Subscriber {
+
+        private final SseEventSink sink;
+
+        private final long from;
+
+        private final Queue<OutboundSseEvent> queue = new ArrayBlockingQueue<>(BUFFER_SIZE);
+
+        private final AtomicBoolean sending = new AtomicBoolean();
+
+        private Subscriber(SseEventSink sink, long from) {
+            this.sink = sink;
+            this.from = from;
+        }
+
+        private boolean offer(OutboundSseEvent event) {
+            return !sink.isClosed() && queue.offer(event);
+        }
+
+        private void drain() {
+            if (!queue.isEmpty() && sending.compareAndSet(false, true) && !execute(SENDERS, this::sendNext)) {
+                queue.clear();
+                sending.set(false);
+            }
+        }
+
+        private void sendNext() {
+            OutboundSseEvent event;
+
+            while ((event = queue.poll()) != null) {
+                CompletableFuture<?> sent;
+
+                try {
+                    sent = sink.send(event).toCompletableFuture();
+                } catch (RuntimeException ex) {
+                    close(this);
+                    return;
+                }
+
+                if (!sent.isDone()) {
+                    sent.whenComplete((result, ex) -> {
+                        if (ex != null) {
+                            close(this);
+                        } else if (!execute(SENDERS, this::sendNext)) {
+                            close(this);
+                        }
+                    });
+                    return;
+                }
+
+                if (sent.isCompletedExceptionally()) {
+                    close(this);
+                    return;
+                }
+            }
+
+            sending.set(false);
+            drain();
+        }
+
+    }
+
+}
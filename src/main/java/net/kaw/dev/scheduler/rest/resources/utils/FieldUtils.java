@@ -0,0 +1,117 @@
+/*
+ * MIT License
+ * 
+ * Copyright (c) 2023 Kawtious
+ * 
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and
+ * associated documentation files (the "Software"), to deal in the Software without restriction,
+ * including without limitation the rights to use, copy, modify, merge, publish, distribute,
+ * sublicense, and/or sell copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ * 
+ * The above copyright notice and this permission notice shall be included in all copies or
+ * substantial portions of the Software.
+ * 
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT
+ * NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM,
+ * DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+package net.kaw.dev.scheduler.rest.resources.utils;
+
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Sparse fieldsets for entity reads. Clients send the keys they want under
+ * FIELDS_KEY, either as a list or as a comma separated string, and everything
+ * else is dropped before the entity is serialized.
+ */
+public class FieldUtils {
+
+    public static final String FIELDS_KEY = "fields";
+
+    public static boolean isValid(Map<String, Object> map) {
+        if (map == null || !map.containsKey(FIELDS_KEY)) {
+            return true;
+        }
+
+        Object fields = map.get(FIELDS_KEY);
+
+        if (fields instanceof String) {
+            return true;
+        }
+
+        if (!(fields instanceof List)) {
+            return false;
+        }
+
+        for (Object field : (List<?>) fields) {
+            if (!(field instanceof String)) {
+                return false;
+            }
+        }
+
+        return true;
+    }
+
+    public static Set<String> getFields(Map<String, Object> map) {
+        if (map == null || !isValid(map) || !map.containsKey(FIELDS_KEY)) {
+            return null;
+        }
+
+        Object fields = map.get(FIELDS_KEY);
+
+        Set<String> set = new LinkedHashSet<>();
+
+        if (fields instanceof String) {
+            for (String field : ((String) fields).split(",")) {
+                add(set, field);
+            }
+        } else {
+            for (Object field : (List<?>) fields) {
+                add(set, (String) field);
+            }
+        }
+
+        return Collections.unmodifiableSet(set);
+    }
+
+    public static Map<String, Object> project(Map<String, Object> map, Set<String> fields) {
+        if (map == null || fields == null) {
+            return map;
+        }
+
+        Map<String, Object> projected = new LinkedHashMap<>();
+
+        for (String field : fields) {
+            if (map.containsKey(field)) {
+                projected.put(field, map.get(field));
+            }
+        }
+
+        return projected;
+    }
+
+    public static <T> JSONStreamUtils.ValueMapper<T> project(JSONStreamUtils.ValueMapper<T> valueMapper, Set<String> fields) {
+        if (fields == null) {
+            return valueMapper;
+        }
+
+        return t -> project(valueMapper.toMap(t), fields);
+    }
+
+    private static void add(Set<String> set, String field) {
+        String trimmed = field.trim();
+
+        if (!trimmed.isEmpty()) {
+            set.add(trimmed);
+        }
+    }
+
+}
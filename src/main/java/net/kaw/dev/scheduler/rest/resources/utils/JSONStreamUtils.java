@@ -0,0 +1,143 @@
+/*
+ * MIT License
+ * 
+ * Copyright (c) 2023 Kawtious
+ * 
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and
+ * associated documentation files (the "Software"), to deal in the Software without restriction,
+ * including without limitation the rights to use, copy, modify, merge, publish, distribute,
+ * sublicense, and/or sell copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ * 
+ * The above copyright notice and this permission notice shall be included in all copies or
+ * substantial portions of the Software.
+ * 
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT
+ * NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM,
+ * DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+package net.kaw.dev.scheduler.rest.resources.utils;
+
+import jakarta.ws.rs.core.StreamingOutput;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+import net.kaw.dev.scheduler.exceptions.InvalidDataException;
+import net.kaw.dev.scheduler.utils.JSONUtils;
+
+/**
+ * Writes entity pages as a JSON object straight to the response, one entity
+ * at a time and in page order, instead of building the whole document in
+ * memory.
+ */
+public class JSONStreamUtils {
+
+    public interface KeyMapper<T> {
+
+        String getKey(T t);
+
+    }
+
+    public interface ValueMapper<T> {
+
+        Map<String, Object> toMap(T t) throws InvalidDataException;
+
+    }
+
+    public static <T> StreamingOutput stream(Page<T> page, KeyMapper<T> keyMapper, ValueMapper<T> valueMapper) {
+        return output -> {
+            Writer writer = new BufferedWriter(new OutputStreamWriter(output, StandardCharsets.UTF_8));
+
+            if (page.isPaged()) {
+                writer.write('{');
+                writeString(writer, PageUtils.ITEMS_KEY);
+                writer.write(':');
+            }
+
+            writer.write('{');
+
+            boolean first = true;
+
+            for (T item : page.getItems()) {
+                if (!first) {
+                    writer.write(',');
+                }
+
+                first = false;
+
+                writeEntry(writer, keyMapper.getKey(item), item, valueMapper);
+            }
+
+            writer.write('}');
+
+            if (page.isPaged()) {
+                writer.write(',');
+                writeString(writer, PageUtils.NEXT_KEY);
+                writer.write(':');
+
+                if (page.getNext() == null) {
+                    writer.write("null");
+                } else {
+                    writeString(writer, page.getNext());
+                }
+
+                writer.write('}');
+            }
+
+            writer.flush();
+        };
+    }
+
+    public static void writeString(Writer writer, String str) throws IOException {
+        writer.write('"');
+
+        for (int i = 0; i < str.length(); i++) {
+            char c = str.charAt(i);
+
+            switch (c) {
+                case '"':
+                    writer.write("\\\"");
+                    break;
+                case '\\':
+                    writer.write("\\\\");
+                    break;
+                case '\n':
+                    writer.write("\\n");
+                    break;
+                case '\r':
+                    writer.write("\\r");
+                    break;
+                case '\t':
+                    writer.write("\\t");
+                    break;
+                default:
+                    if (c < 0x20) {
+                        writer.write(String.format("\\u%04x", (int) c));
+                    } else {
+                        writer.write(c);
+                    }
+            }
+        }
+
+        writer.write('"');
+    }
+
+    private static <T> void writeEntry(Writer writer, String key, T item, ValueMapper<T> valueMapper) throws IOException {
+        try {
+            writeString(writer, String.valueOf(key));
+            writer.write(':');
+            writer.write(JSONUtils.mapToJSON(valueMapper.toMap(item)));
+        } catch (InvalidDataException ex) {
+            Logger.getLogger(JSONStreamUtils.class.getName()).log(Level.SEVERE, null, ex);
+            throw new IOException(ex);
+        }
+    }
+
+}
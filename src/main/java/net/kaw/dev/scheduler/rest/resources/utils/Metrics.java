@@ -0,0 +1,257 @@
+/*
+ * MIT License
+ * 
+ * Copyright (c) 2023 Kawtious
+ * 
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and
+ * associated documentation files (the "Software"), to deal in the Software without restriction,
+ * including without limitation the rights to use, copy, modify, merge, publish, distribute,
+ * sublicense, and/or sell copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ * 
+ * The above copyright notice and this permission notice shall be included in all copies or
+ * substantial portions of the Software.
+ * 
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT
+ * NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM,
+ * DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+package net.kaw.dev.scheduler.rest.resources.utils;
+
+import java.lang.reflect.Method;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLongArray;
+import net.kaw.dev.scheduler.rest.persistence.SQLMetrics;
+
+/**
+ * Per-route request metrics, rendered in the Prometheus text format.
+ */
+public class Metrics {
+
+    private static final double[] QUANTILES = {0.5, 0.99, 0.999};
+
+    private static final Map<Object, Route> ROUTES = new ConcurrentHashMap<>();
+
+    private static final Object UNMATCHED = new Object();
+
+    private static final ThreadLocal<Route> CURRENT = new ThreadLocal<>();
+
+    public static Route getRoute(Method method) {
+        Object key = method == null ? UNMATCHED : method;
+
+        Route route = ROUTES.get(key);
+
+        if (route == null) {
+            route = ROUTES.computeIfAbsent(key, k -> new Route(method == null ? "unmatched" : method.getDeclaringClass().getSimpleName() + "." + method.getName()));
+        }
+
+        return route;
+    }
+
+    public static Route takeCurrentRoute() {
+        Route route = CURRENT.get();
+
+        CURRENT.remove();
+
+        return route;
+    }
+
+    public static void setCurrentRoute(Route route) {
+        if (route == null) {
+            CURRENT.remove();
+        } else {
+            CURRENT.set(route);
+        }
+    }
+
+    public static String render() {
+        StringBuilder builder = new StringBuilder();
+
+        Map<String, Route> routes = new TreeMap<>();
+
+        for (Route route : ROUTES.values()) {
+            routes.put(route.name, route);
+        }
+
+        builder.append("# TYPE scheduler_http_requests_total counter\n");
+
+        for (Route route : routes.values()) {
+            appendSample(builder, "scheduler_http_requests_total", route.name, null, route.latency.getCount());
+        }
+
+        builder.append("# TYPE scheduler_http_responses_total counter\n");
+
+        for (Route route : routes.values()) {
+            for (int status = 0; status < Route.STATUSES; status++) {
+                long count = route.statuses.get(status);
+
+                if (count > 0) {
+                    appendSample(builder, "scheduler_http_responses_total", route.name, "status=\"" + status + "\"", count);
+                }
+            }
+        }
+
+        builder.append("# TYPE scheduler_http_in_flight gauge\n");
+
+        for (Route route : routes.values()) {
+            appendSample(builder, "scheduler_http_in_flight", route.name, null, route.inFlight.get());
+        }
+
+        builder.append("# TYPE scheduler_http_request_duration_seconds summary\n");
+
+        for (Route route : routes.values()) {
+            appendSummary(builder, "scheduler_http_request_duration_seconds", "route=\"" + route.name + "\"", route.latency, 1e6);
+        }
+
+        builder.append("# TYPE scheduler_http_sql_calls_per_request summary\n");
+
+        for (Route route : routes.values()) {
+            appendSummary(builder, "scheduler_http_sql_calls_per_request", "route=\"" + route.name + "\"", route.sqlCalls, 1);
+        }
+
+        builder.append("# TYPE scheduler_http_sql_duration_seconds summary\n");
+
+        for (Route route : routes.values()) {
+            appendSummary(builder, "scheduler_http_sql_duration_seconds", "route=\"" + route.name + "\"", route.sqlTime, 1e6);
+        }
+
+        builder.append("# TYPE scheduler_async_in_flight gauge\n");
+        builder.append("scheduler_async_in_flight ").append(AsyncUtils.getInFlight()).append('\n');
+
+        builder.append("# TYPE scheduler_auth_cache_hits_total counter\n");
+        builder.append("scheduler_auth_cache_hits_total ").append(AuthCache.getHits()).append('\n');
+        builder.append("# TYPE scheduler_auth_cache_misses_total counter\n");
+        builder.append("scheduler_auth_cache_misses_total ").append(AuthCache.getMisses()).append('\n');
+        builder.append("# TYPE scheduler_auth_cache_evictions_total counter\n");
+        builder.append("scheduler_auth_cache_evictions_total ").append(AuthCache.getEvictions()).append('\n');
+        builder.append("# TYPE scheduler_auth_cache_size gauge\n");
+        builder.append("scheduler_auth_cache_size ").append(AuthCache.getSize()).append('\n');
+
+        builder.append("# TYPE scheduler_rate_limit_requests_total counter\n");
+        builder.append("scheduler_rate_limit_requests_total ").append(RateLimiter.getRequests()).append('\n');
+        builder.append("# TYPE scheduler_rate_limit_rejections_total counter\n");
+        builder.append("scheduler_rate_limit_rejections_total ").append(RateLimiter.getRejections()).append('\n');
+        builder.append("# TYPE scheduler_rate_limit_buckets gauge\n");
+        builder.append("scheduler_rate_limit_buckets ").append(RateLimiter.getSize()).append('\n');
+
+        appendEntityCaches(builder, EntityCache.TEACHERS, EntityCache.CYCLES);
+
+        builder.append("# TYPE scheduler_sse_subscribers gauge\n");
+        builder.append("scheduler_sse_subscribers ").append(EventBroadcaster.getSize()).append('\n');
+        builder.append("# TYPE scheduler_sse_dropped_total counter\n");
+        builder.append("scheduler_sse_dropped_total ").append(EventBroadcaster.getDropped()).append('\n');
+
+        SQLMetrics.render(builder);
+
+        return builder.toString();
+    }
+
+    public static void appendEntityCaches(StringBuilder builder, EntityCache<?>... caches) {
+        builder.append("# TYPE scheduler_entity_cache_hits_total counter\n");
+
+        for (EntityCache<?> cache : caches) {
+            builder.append("scheduler_entity_cache_hits_total{cache=\"").append(cache.getName()).append("\"} ").append(cache.getHits()).append('\n');
+        }
+
+        builder.append("# TYPE scheduler_entity_cache_misses_total counter\n");
+
+        for (EntityCache<?> cache : caches) {
+            builder.append("scheduler_entity_cache_misses_total{cache=\"").append(cache.getName()).append("\"} ").append(cache.getMisses()).append('\n');
+        }
+
+        builder.append("# TYPE scheduler_entity_cache_coalesced_total counter\n");
+
+        for (EntityCache<?> cache : caches) {
+            builder.append("scheduler_entity_cache_coalesced_total{cache=\"").append(cache.getName()).append("\"} ").append(cache.getCoalesced()).append('\n');
+        }
+
+        builder.append("# TYPE scheduler_entity_cache_evictions_total counter\n");
+
+        for (EntityCache<?> cache : caches) {
+            builder.append("scheduler_entity_cache_evictions_total{cache=\"").append(cache.getName()).append("\"} ").append(cache.getEvictions()).append('\n');
+        }
+
+        builder.append("# TYPE scheduler_entity_cache_size gauge\n");
+
+        for (EntityCache<?> cache : caches) {
+            builder.append("scheduler_entity_cache_size{cache=\"").append(cache.getName()).append("\"} ").append(cache.getSize()).append('\n');
+        }
+
+        builder.append("# TYPE scheduler_entity_cache_load_seconds summary\n");
+
+        for (EntityCache<?> cache : caches) {
+            appendSummary(builder, "scheduler_entity_cache_load_seconds", "cache=\"" + cache.getName() + "\"", cache.getLoadTime(), 1e6);
+        }
+    }
+
+    public static void appendSummary(StringBuilder builder, String name, String labels, Histogram histogram, double scale) {
+        for (double quantile : QUANTILES) {
+            builder.append(name).append('{').append(labels).append(",quantile=\"").append(quantile).append("\"} ")
+                    .append(histogram.getQuantile(quantile) / scale).append('\n');
+        }
+
+        builder.append(name).append("_sum{").append(labels).append("} ").append(histogram.getSum() / scale).append('\n');
+        builder.append(name).append("_count{").append(labels).append("} ").append(histogram.getCount()).append('\n');
+    }
+
+    public static void appendSample(StringBuilder builder, String name, String route, String labels, Object value) {
+        builder.append(name).append("{route=\"").append(route).append('"');
+
+        if (labels != null) {
+            builder.append(',').append(labels);
+        }
+
+        builder.append("} ").append(value).append('\n');
+    }
+
+    public static class Route {
+
+        private static final int STATUSES = 600;
+
+        private final String name;
+
+        private final Histogram latency = new Histogram();
+
+        private final AtomicLongArray statuses = new AtomicLongArray(STATUSES);
+
+        private final AtomicInteger inFlight = new AtomicInteger();
+
+        private final Histogram sqlCalls = new Histogram();
+
+        private final Histogram sqlTime = new Histogram();
+
+        private Route(String name) {
+            this.name = name;
+        }
+
+        public String getName() {
+            return name;
+        }
+
+        public void start() {
+            inFlight.incrementAndGet();
+        }
+
+        public void end(int status, long nanos) {
+            inFlight.decrementAndGet();
+
+            latency.record(nanos / 1000);
+
+            if (status >= 0 && status < STATUSES) {
+                statuses.incrementAndGet(status);
+            }
+        }
+
+        public void recordSQL(int calls, long micros) {
+            sqlCalls.record(calls);
+            sqlTime.record(micros);
+        }
+
+    }
+
+}
@@ -0,0 +1,144 @@
+/*
+ * MIT License
+ * 
+ * Copyright (c) 2023 Kawtious
+ * 
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and
+ * associated documentation files (the "Software"), to deal in the Software without restriction,
+ * including without limitation the rights to use, copy, modify, merge, publish, distribute,
+ * sublicense, and/or sell copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ * 
+ * The above copyright notice and this permission notice shall be included in all copies or
+ * substantial portions of the Software.
+ * 
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT
+ * NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM,
+ * DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+package net.kaw.dev.scheduler.rest.resources.utils;
+
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import net.kaw.dev.scheduler.exceptions.InvalidDataException;
+
+/**
+ * Keyset pagination over entity listings. Entities are ordered by their
+ * cursor, and a page holds the entities whose cursor comes after the one sent
+ * by the client.
+ */
+public class PageUtils {
+
+    public static final String CURSOR_KEY = "cursor";
+
+    public static final String LIMIT_KEY = "limit";
+
+    public static final String ITEMS_KEY = "items";
+
+    public static final String NEXT_KEY = "next";
+
+    public static final int MAX_LIMIT = 1000;
+
+    public interface Loader<T> {
+
+        List<T> load() throws SQLException, InvalidDataException;
+
+    }
+
+    public interface CursorMapper<T> {
+
+        String getCursor(T t);
+
+    }
+
+    public static boolean isValid(Map<String, Object> map) {
+        if (map == null) {
+            return true;
+        }
+
+        if (map.containsKey(LIMIT_KEY) && !(map.get(LIMIT_KEY) instanceof Number)) {
+            return false;
+        }
+
+        return !map.containsKey(CURSOR_KEY) || map.get(CURSOR_KEY) instanceof String;
+    }
+
+    public static <T> Page<T> load(Loader<T> loader, CursorMapper<T> cursorMapper, Map<String, Object> map) throws SQLException, InvalidDataException {
+        boolean paged = map != null && (map.containsKey(LIMIT_KEY) || map.containsKey(CURSOR_KEY));
+
+        String cursor = paged ? (String) map.get(CURSOR_KEY) : null;
+
+        int limit = paged ? getLimit(map) : Integer.MAX_VALUE;
+
+        return page(loader.load(), cursorMapper, cursor, limit, paged);
+    }
+
+    public static <T> Page<T> page(List<T> items, CursorMapper<T> cursorMapper, String cursor, int limit, boolean paged) {
+        List<T> sorted = new ArrayList<>(items.size());
+
+        for (T item : items) {
+            if (cursor == null || cursorMapper.getCursor(item).compareTo(cursor) > 0) {
+                sorted.add(item);
+            }
+        }
+
+        sorted.sort(Comparator.comparing(cursorMapper::getCursor));
+
+        if (sorted.size() <= limit) {
+            return new Page<>(sorted, null, paged);
+        }
+
+        List<T> pageItems = new ArrayList<>(sorted.subList(0, limit));
+
+        return new Page<>(pageItems, cursorMapper.getCursor(pageItems.get(limit - 1)), paged);
+    }
+
+    public static <T> Page<T> pageSorted(List<T> sorted, CursorMapper<T> cursorMapper, String cursor, int limit, boolean paged) {
+        int from = 0;
+
+        if (cursor != null) {
+            int low = 0;
+            int high = sorted.size();
+
+            while (low < high) {
+                int mid = (low + high) >>> 1;
+
+                if (cursorMapper.getCursor(sorted.get(mid)).compareTo(cursor) > 0) {
+                    high = mid;
+                } else {
+                    low = mid + 1;
+                }
+            }
+
+            from = low;
+        }
+
+        int to = (int) Math.min((long) from + limit, sorted.size());
+
+        List<T> pageItems = new ArrayList<>(sorted.subList(from, to));
+
+        String next = to < sorted.size() && !pageItems.isEmpty() ? cursorMapper.getCursor(pageItems.get(pageItems.size() - 1)) : null;
+
+        return new Page<>(pageItems, next, paged);
+    }
+
+    public static String cursorOf(long position, String id) {
+        return String.format("%019d:%s", Math.max(position, 0), id);
+    }
+
+    public static int getLimit(Map<String, Object> map) {
+        if (map == null || !(map.get(LIMIT_KEY) instanceof Number)) {
+            return MAX_LIMIT;
+        }
+
+        int limit = ((Number) map.get(LIMIT_KEY)).intValue();
+
+        return Math.max(1, Math.min(limit, MAX_LIMIT));
+    }
+
+}
@@ -0,0 +1,230 @@
+/*
+ * MIT License
+ * 
+ * Copyright (c) 2023 Kawtious
+ * 
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and
+ * associated documentation files (the "Software"), to deal in the Software without restriction,
+ * including without limitation the rights to use, copy, modify, merge, publish, distribute,
+ * sublicense, and/or sell copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ * 
+ * The above copyright notice and this permission notice shall be included in all copies or
+ * substantial portions of the Software.
+ * 
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT
+ * NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM,
+ * DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+package net.kaw.dev.scheduler.rest.resources.utils;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Lock-free token buckets keyed by caller, per endpoint group and auth level
+ * tier. Each bucket is a single theoretical arrival time updated with
+ * compare-and-set (the generic cell rate algorithm), which behaves like a
+ * token bucket of the tier's rate and a burst of two seconds' worth.
+ */
+public class RateLimiter {
+
+    public enum Group {
+        AUTHENTICATE(0.25),
+        READ(1),
+        WRITE(0.5);
+
+        private final double factor;
+
+        Group(double factor) {
+            this.factor = factor;
+        }
+
+    }
+
+    public static final long IDLE_TIMEOUT = TimeUnit.MINUTES.toNanos(10);
+
+    private static final int SWEEP_INTERVAL = 4096;
+
+    public static final String ANONYMOUS_RATE_PROPERTY = "scheduler.rate.anonymous";
+
+    public static final String USER_RATE_PROPERTY = "scheduler.rate.user";
+
+    public static final String ADMIN_RATE_PROPERTY = "scheduler.rate.admin";
+
+    private static final double[] TIER_RATES = {
+        getRate(ANONYMOUS_RATE_PROPERTY, 5),
+        getRate(USER_RATE_PROPERTY, 20),
+        getRate(ADMIN_RATE_PROPERTY, 100)
+    };
+
+    private static final Limit[][] LIMITS = new Limit[Group.values().length][TIER_RATES.length];
+
+    private static final LongAdder REQUESTS = new LongAdder();
+
+    private static final LongAdder REJECTIONS = new LongAdder();
+
+    static {
+        for (Group group : Group.values()) {
+            for (int tier = 0; tier < TIER_RATES.length; tier++) {
+                LIMITS[group.ordinal()][tier] = new Limit(Math.max(1, TIER_RATES[tier] * group.factor));
+            }
+        }
+    }
+
+    public static boolean tryAcquire(String key, Group group, Integer authLevel) {
+        long now = System.nanoTime();
+
+        REQUESTS.increment();
+
+        if (ThreadLocalRandom.current().nextInt(SWEEP_INTERVAL) == 0) {
+            evictIdle(now);
+        }
+
+        if (getLimit(group, authLevel).tryAcquire(key, now)) {
+            return true;
+        }
+
+        REJECTIONS.increment();
+
+        return false;
+    }
+
+    public static long getRetryAfterSeconds(Group group, Integer authLevel) {
+        return Math.max(1, Math.round(1 / getLimit(group, authLevel).rate));
+    }
+
+    public static long getRequests() {
+        return REQUESTS.sum();
+    }
+
+    public static long getRejections() {
+        return REJECTIONS.sum();
+    }
+
+    public static int getSize() {
+        int size = 0;
+
+        for (Limit[] limits : LIMITS) {
+            for (Limit limit : limits) {
+                size += limit.buckets.size();
+            }
+        }
+
+        return size;
+    }
+
+    public static void clear() {
+        for (Limit[] limits : LIMITS) {
+            for (Limit limit : limits) {
+                limit.buckets.clear();
+            }
+        }
+    }
+
+    private static double getRate(String property, double defaultRate) {
+        String value = System.getProperty(property);
+
+        if (value == null) {
+            return defaultRate;
+        }
+
+        try {
+            double rate = Double.parseDouble(value);
+
+            if (rate > 0 && !Double.isInfinite(rate)) {
+                return rate;
+            }
+        } catch (NumberFormatException ex) {
+        }
+
+        Logger.getLogger(RateLimiter.class.getName()).log(Level.WARNING, "Ignoring invalid {0}: {1}", new Object[]{property, value});
+
+        return defaultRate;
+    }
+
+    private static Limit getLimit(Group group, Integer authLevel) {
+        int tier;
+
+        if (authLevel == null) {
+            tier = 0;
+        } else if (authLevel < 1) {
+            tier = 1;
+        } else {
+            tier = 2;
+        }
+
+        return LIMITS[group.ordinal()][tier];
+    }
+
+    private static void evictIdle(long now) {
+        for (Limit[] limits : LIMITS) {
+            for (Limit limit : limits) {
+                limit.buckets.values().removeIf(bucket -> bucket.isIdle(now));
+            }
+        }
+    }
+
+    private static class Limit {
+
+        private final double rate;
+
+        private final long interval;
+
+        private final long tolerance;
+
+        private final Map<String, Bucket> buckets = new ConcurrentHashMap<>();
+
+        private Limit(double rate) {
+            this.rate = rate;
+            this.interval = (long) (TimeUnit.SECONDS.toNanos(1) / rate);
+            this.tolerance = interval * ((int) Math.ceil(rate * 2) - 1);
+        }
+
+        private boolean tryAcquire(String key, long now) {
+            Bucket bucket = buckets.get(key);
+
+            if (bucket == null) {
+                bucket = buckets.computeIfAbsent(key, k -> new Bucket());
+            }
+
+            return bucket.tryAcquire(now, interval, tolerance);
+        }
+
+    }
+
+    private static class Bucket {
+
+        private final AtomicLong arrival = new AtomicLong(System.nanoTime());
+
+        private boolean tryAcquire(long now, long interval, long tolerance) {
+            while (true) {
+                long current = arrival.get();
+
+                if (current - now > tolerance) {
+                    return false;
+                }
+
+                long next = Math.max(current, now) + interval;
+
+                if (arrival.compareAndSet(current, next)) {
+                    return true;
+                }
+            }
+        }
+
+        private boolean isIdle(long now) {
+            return now - arrival.get() > IDLE_TIMEOUT;
+        }
+
+    }
+
+}
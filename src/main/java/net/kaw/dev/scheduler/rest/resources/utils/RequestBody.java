@@ -0,0 +1,79 @@
+/*
+ * MIT License
+ * 
+ * Copyright (c) 2023 Kawtious
+ * 
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and
+ * associated documentation files (the "Software"), to deal in the Software without restriction,
+ * including without limitation the rights to use, copy, modify, merge, publish, distribute,
+ * sublicense, and/or sell copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ * 
+ * The above copyright notice and this permission notice shall be included in all copies or
+ * substantial portions of the Software.
+ * 
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT
+ * NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM,
+ * DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+package net.kaw.dev.scheduler.rest.resources.utils;
+
+import jakarta.servlet.http.HttpServletRequest;
+import java.util.Map;
+import net.kaw.dev.scheduler.utils.JSONUtils;
+
+/**
+ * Request body that is validated and parsed exactly once per request.
+ */
+public class RequestBody {
+
+    public static final String PROPERTY = RequestBody.class.getName();
+
+    private final String jsonString;
+
+    private final Map<String, Object> map;
+
+    private RequestBody(String jsonString) {
+        this.jsonString = jsonString == null ? "" : jsonString;
+        this.map = parse(this.jsonString);
+    }
+
+    public static RequestBody of(String jsonString) {
+        return new RequestBody(jsonString);
+    }
+
+    public static RequestBody from(HttpServletRequest request, String jsonString) {
+        if (request != null && request.getAttribute(PROPERTY) instanceof RequestBody) {
+            return (RequestBody) request.getAttribute(PROPERTY);
+        }
+
+        return of(jsonString);
+    }
+
+    public String getJSONString() {
+        return jsonString;
+    }
+
+    public Map<String, Object> getMap() {
+        return map;
+    }
+
+    public boolean isValid() {
+        return map != null;
+    }
+
+    private static Map<String, Object> parse(String jsonString) {
+        if (jsonString.isEmpty()) {
+            return null;
+        }
+
+        try {
+            return JSONUtils.jsonToMap(jsonString);
+        } catch (RuntimeException ex) {
+            return null;
+        }
+    }
+
+}
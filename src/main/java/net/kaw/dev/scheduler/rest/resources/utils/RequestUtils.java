@@ -21,20 +21,17 @@
 package net.kaw.dev.scheduler.rest.resources.utils;
 
 import java.util.Map;
-import net.kaw.dev.scheduler.utils.JSONUtils;
 
 public class RequestUtils {
 
-    public static Map<String, Object> getMap(String jsonString) {
-        if (jsonString.isEmpty()) {
-            return null;
-        }
+    public static final String NDJSON = "application/x-ndjson";
+
+    public static final String CBOR = "application/cbor";
 
-        if (!JSONUtils.isJSONValid(jsonString)) {
-            return null;
-        }
+    public static final String CBOR_VARIANT = "cbor";
 
-        return JSONUtils.jsonToMap(jsonString);
+    public static Map<String, Object> getMap(String jsonString) {
+        return RequestBody.of(jsonString).getMap();
     }
 
 }
@@ -20,12 +20,17 @@
  */
 package net.kaw.dev.scheduler.rest.resources.utils;
 
+import jakarta.ws.rs.core.EntityTag;
+import jakarta.ws.rs.core.HttpHeaders;
+import jakarta.ws.rs.core.MediaType;
 import jakarta.ws.rs.core.Response;
 
 public class ResponseUtils {
 
     public static final int OK = 200;
 
+    public static final int NOT_MODIFIED = 304;
+
     public static final int BAD_REQUEST = 400;
 
     public static final int UNAUTHORIZED = 401;
@@ -38,7 +43,31 @@ public class ResponseUtils {
 
     public static final int INTERNAL_SERVER_ERROR = 500;
 
+    public static final String VARY_NEGOTIATED = HttpHeaders.ACCEPT + ", " + HttpHeaders.ACCEPT_ENCODING;
+
     public static Response createResponse(int status, Object o) {
+        return createResponse(status, o, null);
+    }
+
+    public static Response createResponse(int status, Object o, EntityTag tag) {
+        return createResponseBuilder(status, o, tag).build();
+    }
+
+    public static Response createResponse(int status, Object o, EntityTag tag, String contentEncoding) {
+        return createResponseBuilder(status, o, tag)
+                .header(HttpHeaders.CONTENT_ENCODING, contentEncoding)
+                .header(HttpHeaders.VARY, VARY_NEGOTIATED)
+                .build();
+    }
+
+    public static Response createResponse(int status, Object o, EntityTag tag, MediaType type) {
+        return createResponseBuilder(status, o, tag)
+                .type(type)
+                .header(HttpHeaders.VARY, HttpHeaders.ACCEPT)
+                .build();
+    }
+
+    private static Response.ResponseBuilder createResponseBuilder(int status, Object o, EntityTag tag) {
         return Response
                 .status(status)
                 .header("Access-Control-Allow-Origin", "*")
@@ -47,7 +76,18 @@ public class ResponseUtils {
                         "origin, content-type, accept, authorization")
                 .header("Access-Control-Allow-Methods",
                         "GET, POST, PUT, DELETE, OPTIONS, HEAD")
-                .entity(o)
+                .header("Access-Control-Expose-Headers", "ETag")
+                .tag(tag)
+                .entity(o);
+    }
+
+    public static Response createNotModifiedResponse(EntityTag tag) {
+        return createResponse(NOT_MODIFIED, null, tag);
+    }
+
+    public static Response createNotModifiedResponse(EntityTag tag, String vary) {
+        return createResponseBuilder(NOT_MODIFIED, null, tag)
+                .header(HttpHeaders.VARY, vary)
                 .build();
     }
 
@@ -0,0 +1,185 @@
+/*
+ * MIT License
+ * 
+ * Copyright (c) 2023 Kawtious
+ * 
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and
+ * associated documentation files (the "Software"), to deal in the Software without restriction,
+ * including without limitation the rights to use, copy, modify, merge, publish, distribute,
+ * sublicense, and/or sell copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ * 
+ * The above copyright notice and this permission notice shall be included in all copies or
+ * substantial portions of the Software.
+ * 
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT
+ * NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM,
+ * DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+package net.kaw.dev.scheduler.rest.resources.utils;
+
+import jakarta.ws.rs.core.EntityTag;
+import jakarta.ws.rs.core.Response;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.sql.SQLException;
+import java.util.Map;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.zip.GZIPOutputStream;
+import net.kaw.dev.scheduler.exceptions.InvalidDataException;
+
+/**
+ * Fully encoded response body of an unpaged, unprojected collection listing,
+ * kept together with its gzip encoding. A snapshot belongs to one version of
+ * its collection and is rebuilt by the first read after a write bumps it;
+ * concurrent readers wait for that single rebuild.
+ */
+public class SnapshotCache<T> {
+
+    public static final String GZIP = "gzip";
+
+    private final VersionUtils.Collection collection;
+
+    private final PageUtils.Loader<T> loader;
+
+    private final PageUtils.CursorMapper<T> cursorMapper;
+
+    private final JSONStreamUtils.KeyMapper<T> keyMapper;
+
+    private final JSONStreamUtils.ValueMapper<T> valueMapper;
+
+    private final Lock lock = new ReentrantLock();
+
+    private volatile Snapshot snapshot;
+
+    public SnapshotCache(VersionUtils.Collection collection, PageUtils.Loader<T> loader, PageUtils.CursorMapper<T> cursorMapper,
+            JSONStreamUtils.KeyMapper<T> keyMapper, JSONStreamUtils.ValueMapper<T> valueMapper) {
+        this.collection = collection;
+        this.loader = loader;
+        this.cursorMapper = cursorMapper;
+        this.keyMapper = keyMapper;
+        this.valueMapper = valueMapper;
+    }
+
+    public static boolean covers(Map<String, Object> map) {
+        return map == null || !(map.containsKey(PageUtils.CURSOR_KEY) || map.containsKey(PageUtils.LIMIT_KEY) || map.containsKey(FieldUtils.FIELDS_KEY));
+    }
+
+    public static EntityTag variant(EntityTag tag, String acceptEncoding) {
+        return acceptsGzip(acceptEncoding) ? VersionUtils.variant(tag, GZIP) : tag;
+    }
+
+    public static boolean acceptsGzip(String acceptEncoding) {
+        if (acceptEncoding == null) {
+            return false;
+        }
+
+        for (String coding : acceptEncoding.split(",")) {
+            String[] parts = coding.split(";");
+
+            if (!parts[0].trim().equalsIgnoreCase(GZIP)) {
+                continue;
+            }
+
+            for (int i = 1; i < parts.length; i++) {
+                String param = parts[i].trim();
+
+                if (param.startsWith("q=") && param.substring(2).matches("0(\\.0*)?")) {
+                    return false;
+                }
+            }
+
+            return true;
+        }
+
+        return false;
+    }
+
+    public Snapshot get() throws SQLException, InvalidDataException {
+        Snapshot s = snapshot;
+
+        if (s != null && s.version == VersionUtils.get(collection)) {
+            return s;
+        }
+
+        lock.lock();
+
+        try {
+            long version = VersionUtils.get(collection);
+
+            s = snapshot;
+
+            if (s == null || s.version != version) {
+                s = build(version);
+                snapshot = s;
+            }
+
+            return s;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private Snapshot build(long version) throws SQLException, InvalidDataException {
+        Page<T> page = PageUtils.load(loader, cursorMapper, null);
+
+        ByteArrayOutputStream json = new ByteArrayOutputStream();
+        ByteArrayOutputStream gzip = new ByteArrayOutputStream();
+
+        try {
+            JSONStreamUtils.stream(page, keyMapper, valueMapper).write(json);
+
+            try (GZIPOutputStream output = new GZIPOutputStream(gzip)) {
+                json.writeTo(output);
+            }
+        } catch (IOException ex) {
+            if (ex.getCause() instanceof InvalidDataException) {
+                throw (InvalidDataException) ex.getCause();
+            }
+
+            throw new IllegalStateException(ex);
+        }
+
+        return new Snapshot(version, json.toByteArray(), gzip.toByteArray());
+    }
+
+    public static class Snapshot {
+
+        private final long version;
+
+        private final byte[] json;
+
+        private final byte[] gzip;
+
+        private Snapshot(long version, byte[] json, byte[] gzip) {
+            this.version = version;
+            this.json = json;
+            this.gzip = gzip;
+        }
+
+        public long getVersion() {
+            return version;
+        }
+
+        public byte[] getJSON() {
+            return json;
+        }
+
+        public byte[] getGzip() {
+            return gzip;
+        }
+
+        public Response toResponse(String acceptEncoding, EntityTag tag) {
+            if (acceptsGzip(acceptEncoding)) {
+                return ResponseUtils.createResponse(ResponseUtils.OK, gzip, tag, GZIP);
+            }
+
+            return ResponseUtils.createResponse(ResponseUtils.OK, json, tag, (String) null);
+        }
+
+    }
+
+}
@@ -0,0 +1,109 @@
+/*
+ * MIT License
+ * 
+ * Copyright (c) 2023 Kawtious
+ * 
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and
+ * associated documentation files (the "Software"), to deal in the Software without restriction,
+ * including without limitation the rights to use, copy, modify, merge, publish, distribute,
+ * sublicense, and/or sell copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ * 
+ * The above copyright notice and this permission notice shall be included in all copies or
+ * substantial portions of the Software.
+ * 
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT
+ * NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM,
+ * DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+package net.kaw.dev.scheduler.rest.resources.utils;
+
+import java.sql.SQLException;
+import java.util.List;
+import java.util.Map;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+import net.kaw.dev.scheduler.data.ScheduleMap;
+import net.kaw.dev.scheduler.data.Teacher;
+import net.kaw.dev.scheduler.exceptions.InvalidDataException;
+import net.kaw.dev.scheduler.rest.persistence.InstrumentedSQLControl;
+
+/**
+ * Single write path for a teacher and its schedule maps. SQLControl offers no
+ * transaction or batch API, so the rows are still written one call at a time.
+ * If a write fails for a teacher this call created, the teacher row is
+ * deleted again. If the teacher already existed its previous rows cannot be
+ * restored, so every view derived from the teachers table is invalidated and
+ * delta clients are told to reset. Teachers that were written are reflected
+ * in the AvailabilityIndex, which also tells whether the teacher existed
+ * before the write without loading it, and are checked by the
+ * ConflictDetector through index, which callers run after the write and
+ * outside its lock.
+ */
+public class TeacherPersistence {
+
+    public static void insert(Teacher teacher) throws SQLException, InvalidDataException {
+        boolean created = !exists(teacher.getId());
+
+        boolean written = false;
+
+        try {
+            InstrumentedSQLControl.Teachers.insert(teacher);
+
+            for (ScheduleMap scheduleMap : teacher.getScheduleMaps()) {
+                InstrumentedSQLControl.ScheduleMaps.insert(scheduleMap, teacher);
+                InstrumentedSQLControl.HalfHours.insertFromScheduleMap(scheduleMap);
+            }
+
+            written = true;
+        } finally {
+            if (!written && (!created || !rollback(teacher))) {
+                discard(teacher);
+            }
+        }
+
+        AvailabilityIndex.put(teacher);
+    }
+
+    public static List<Map<String, Object>> index(Teacher teacher) {
+        return ConflictDetector.update(teacher);
+    }
+
+    private static boolean exists(String id) throws SQLException, InvalidDataException {
+        try {
+            return AvailabilityIndex.contains(id);
+        } catch (IllegalStateException ex) {
+            Logger.getLogger(TeacherPersistence.class.getName()).log(Level.SEVERE, null, ex);
+        }
+
+        return InstrumentedSQLControl.Teachers.select(id) != null;
+    }
+
+    private static boolean rollback(Teacher teacher) {
+        try {
+            InstrumentedSQLControl.Teachers.delete(teacher.getId());
+            return true;
+        } catch (SQLException ex) {
+            Logger.getLogger(TeacherPersistence.class.getName()).log(Level.SEVERE, null, ex);
+        }
+
+        return false;
+    }
+
+    private static void discard(Teacher teacher) {
+        EntityCache.TEACHERS.invalidate(teacher.getId());
+
+        AvailabilityIndex.invalidate();
+
+        ConflictDetector.invalidate();
+
+        VersionUtils.bump(VersionUtils.Collection.TEACHERS);
+
+        ChangeLog.reset(VersionUtils.Collection.TEACHERS);
+
+        AuthCache.clear();
+    }
+
+}
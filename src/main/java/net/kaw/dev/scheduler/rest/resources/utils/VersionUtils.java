@@ -0,0 +1,124 @@
+/*
+ * MIT License
+ * 
+ * Copyright (c) 2023 Kawtious
+ * 
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and
+ * associated documentation files (the "Software"), to deal in the Software without restriction,
+ * including without limitation the rights to use, copy, modify, merge, publish, distribute,
+ * sublicense, and/or sell copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ * 
+ * The above copyright notice and this permission notice shall be included in all copies or
+ * substantial portions of the Software.
+ * 
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT
+ * NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM,
+ * DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+package net.kaw.dev.scheduler.rest.resources.utils;
+
+import jakarta.ws.rs.core.EntityTag;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Per-collection version counters used to build ETags. Every write path bumps
+ * the counter of the collection it touches, so a tag stays valid exactly as
+ * long as nothing in its collections has changed. The request body is
+ * folded in as the first 64 bits of its SHA-256, so two different bodies do
+ * not share a tag in practice.
+ */
+public class VersionUtils {
+
+    public enum Collection {
+        TEACHERS,
+        CYCLES,
+        CAREERS,
+        AUTH_INSTANCES
+    }
+
+    private static final int BODY_HASH_BYTES = 8;
+
+    private static final String INSTANCE = Long.toHexString(UUID.randomUUID().getMostSignificantBits());
+
+    private static final Map<Collection, AtomicLong> VERSIONS = new EnumMap<>(Collection.class);
+
+    static {
+        for (Collection collection : Collection.values()) {
+            VERSIONS.put(collection, new AtomicLong());
+        }
+    }
+
+    public static long get(Collection collection) {
+        return VERSIONS.get(collection).get();
+    }
+
+    public static long bump(Collection collection) {
+        return VERSIONS.get(collection).incrementAndGet();
+    }
+
+    public static EntityTag tag(RequestBody body, Collection... collections) {
+        StringBuilder value = new StringBuilder(INSTANCE);
+
+        for (Collection collection : collections) {
+            value.append('-').append(get(collection));
+        }
+
+        value.append('-');
+
+        appendHash(value, body.getJSONString());
+
+        return new EntityTag(value.toString());
+    }
+
+    private static void appendHash(StringBuilder builder, String value) {
+        byte[] hash;
+
+        try {
+            hash = MessageDigest.getInstance("SHA-256").digest(String.valueOf(value).getBytes(StandardCharsets.UTF_8));
+        } catch (NoSuchAlgorithmException ex) {
+            throw new IllegalStateException(ex);
+        }
+
+        for (int i = 0; i < BODY_HASH_BYTES; i++) {
+            builder.append(Character.forDigit((hash[i] >> 4) & 0xF, 16)).append(Character.forDigit(hash[i] & 0xF, 16));
+        }
+    }
+
+    public static EntityTag variant(EntityTag tag, String variant) {
+        return new EntityTag(tag.getValue() + "-" + variant);
+    }
+
+    public static boolean matches(String ifNoneMatch, EntityTag tag) {
+        if (ifNoneMatch == null) {
+            return false;
+        }
+
+        for (String candidate : ifNoneMatch.split(",")) {
+            candidate = candidate.trim();
+
+            if (candidate.equals("*")) {
+                return true;
+            }
+
+            if (candidate.startsWith("W/")) {
+                candidate = candidate.substring(2);
+            }
+
+            if (candidate.equals("\"" + tag.getValue() + "\"")) {
+                return true;
+            }
+        }
+
+        return false;
+    }
+
+}
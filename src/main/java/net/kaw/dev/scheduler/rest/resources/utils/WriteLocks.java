@@ -0,0 +1,78 @@
+/*
+ * MIT License
+ * 
+ * Copyright (c) 2023 Kawtious
+ * 
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and
+ * associated documentation files (the "Software"), to deal in the Software without restriction,
+ * including without limitation the rights to use, copy, modify, merge, publish, distribute,
+ * sublicense, and/or sell copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ * 
+ * The above copyright notice and this permission notice shall be included in all copies or
+ * substantial portions of the Software.
+ * 
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT
+ * NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM,
+ * DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+package net.kaw.dev.scheduler.rest.resources.utils;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Striped per-id locks held across an entity's SQL write and its ChangeLog
+ * entry, so two writes to the same id are logged in the order they reached
+ * the database and the last logged version is the stored one. These are
+ * ReentrantLocks rather than monitors because they are held across blocking
+ * SQL calls on virtual threads, which a monitor would pin to their carrier.
+ */
+public class WriteLocks {
+
+    public static final int STRIPES = 64;
+
+    private static final Lock[] LOCKS = new Lock[STRIPES];
+
+    static {
+        for (int i = 0; i < STRIPES; i++) {
+            LOCKS[i] = new ReentrantLock();
+        }
+    }
+
+    public static Lock get(VersionUtils.Collection collection, String id) {
+        return LOCKS[getStripe(collection, id)];
+    }
+
+    /**
+     * The distinct locks of a set of ids, in stripe order, so batches taking
+     * several of them always take them in the same order.
+     */
+    public static List<Lock> getAll(VersionUtils.Collection collection, Collection<String> ids) {
+        Set<Integer> stripes = new TreeSet<>();
+
+        for (String id : ids) {
+            stripes.add(getStripe(collection, id));
+        }
+
+        List<Lock> locks = new ArrayList<>(stripes.size());
+
+        for (int stripe : stripes) {
+            locks.add(LOCKS[stripe]);
+        }
+
+        return locks;
+    }
+
+    private static int getStripe(VersionUtils.Collection collection, String id) {
+        return Math.floorMod(31 * collection.ordinal() + (id == null ? 0 : id.hashCode()), STRIPES);
+    }
+
+}